@@ -0,0 +1,87 @@
+package com.clearlagenhanced.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whitelist lookup only: the old check (a List of type names from the config, matched with
+ * {@code type.name()}) against an EnumSet like the one compiled into ClearPolicy. This does not
+ * run ClearPolicy#shouldClear, which needs server entities; entity types are stood in by a local
+ * enum holding the default whitelist and the types a clear usually meets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClearWhitelistBenchmark {
+
+    private static final int ENTITIES = 4096;
+
+    private enum Type {
+        PLAYER, VILLAGER, IRON_GOLEM, SNOW_GOLEM, CAT, PARROT, ARMOR_STAND, ITEM_FRAME, GLOW_ITEM_FRAME,
+        PAINTING, MINECART, CHEST_MINECART, FURNACE_MINECART, HOPPER_MINECART, BOAT, CHEST_BOAT,
+        ITEM, EXPERIENCE_ORB, ARROW, ZOMBIE, SKELETON, CREEPER, SPIDER, ENDERMAN, COW, PIG, SHEEP,
+        CHICKEN, SQUID, BAT, SLIME, WITCH, DROWNED, HUSK, STRAY, PHANTOM, BEE, RABBIT, FOX, SALMON
+    }
+
+    // The default entity-clearing.whitelist
+    private final List<String> whitelist = List.of("VILLAGER", "IRON_GOLEM", "SNOW_GOLEM", "CAT", "PARROT",
+            "ARMOR_STAND", "ITEM_FRAME", "GLOW_ITEM_FRAME", "PAINTING", "MINECART", "CHEST_MINECART",
+            "FURNACE_MINECART", "HOPPER_MINECART", "BOAT", "CHEST_BOAT");
+    private final Set<Type> protectedTypes = EnumSet.of(Type.PLAYER);
+    private final Type[] entities = new Type[ENTITIES];
+
+    @Setup
+    public void setup() {
+        for (String name : whitelist) {
+            protectedTypes.add(Type.valueOf(name));
+        }
+
+        // Mostly dropped items and hostile mobs, like a real clear
+        Type[] types = Type.values();
+        Random random = new Random(42);
+        for (int i = 0; i < ENTITIES; i++) {
+            entities[i] = random.nextInt(4) == 0 ? types[random.nextInt(types.length)] : types[16 + random.nextInt(types.length - 16)];
+        }
+    }
+
+    @Benchmark
+    public int whitelistNames() {
+        int cleared = 0;
+        for (Type type : entities) {
+            if (type != Type.PLAYER && !whitelist.contains(type.name())) {
+                cleared++;
+            }
+        }
+
+        return cleared;
+    }
+
+    @Benchmark
+    public int enumSet() {
+        int cleared = 0;
+        for (Type type : entities) {
+            if (!protectedTypes.contains(type)) {
+                cleared++;
+            }
+        }
+
+        return cleared;
+    }
+}
@@ -0,0 +1,81 @@
+package com.clearlagenhanced.benchmarks;
+
+import com.clearlagenhanced.utils.ChunkKeys;
+import com.clearlagenhanced.utils.LongLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hopper count lookup done on every hopper move: the old "world:x,z" String keys in a
+ * ConcurrentHashMap against packed chunk keys in a LongLongHashMap. The cache is warm,
+ * as it is for any chunk with hoppers running; moves are spread over 64 chunks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HopperChunkKeyBenchmark {
+
+    private static final int MOVES = 4096;
+    private static final String WORLD = "world";
+
+    private final int[] chunkXs = new int[MOVES];
+    private final int[] chunkZs = new int[MOVES];
+    private final Map<String, Integer> hopperCountByChunk = new ConcurrentHashMap<>();
+    private final LongLongHashMap hopperCounts = new LongLongHashMap();
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < MOVES; i++) {
+            chunkXs[i] = (i & 7) - 4;
+            chunkZs[i] = ((i >> 3) & 7) + 100;
+            hopperCountByChunk.put(stringKey(WORLD, chunkXs[i], chunkZs[i]), 24);
+            hopperCounts.put(ChunkKeys.pack(chunkXs[i], chunkZs[i]), 24);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public long stringKeys() {
+        long total = 0;
+        for (int i = 0; i < MOVES; i++) {
+            Integer cached = hopperCountByChunk.get(stringKey(WORLD, chunkXs[i], chunkZs[i]));
+            if (cached != null) {
+                total += cached;
+            }
+        }
+
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public long packedKeys() {
+        long total = 0;
+        for (int i = 0; i < MOVES; i++) {
+            total += hopperCounts.get(ChunkKeys.pack(chunkXs[i], chunkZs[i]));
+        }
+
+        return total;
+    }
+
+    // The key the hopper limiter built before
+    private static String stringKey(String world, int chunkX, int chunkZ) {
+        return world + ":" + chunkX + "," + chunkZ;
+    }
+}
@@ -0,0 +1,139 @@
+package com.clearlagenhanced.benchmarks;
+
+import com.clearlagenhanced.utils.ChunkKeys;
+import com.clearlagenhanced.utils.LongLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-activation bookkeeping of the redstone limiter: the old ConcurrentHashMap keyed by
+ * world-name records with AtomicInteger holders, against the packed long keys in a
+ * LongLongHashMap that the limiter uses now. Replays activations of a 16x16 chunk area
+ * with 32 redstone blocks per chunk, every block firing once per pass.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedstoneCounterBenchmark {
+
+    private static final int ACTIVATIONS = 8192;
+    private static final int THRESHOLD = 1 << 30;
+    private static final String WORLD = "world";
+
+    private final int[] xs = new int[ACTIVATIONS];
+    private final int[] ys = new int[ACTIVATIONS];
+    private final int[] zs = new int[ACTIVATIONS];
+
+    private final Map<BlockKey, BlockData> blockActivations = new ConcurrentHashMap<>();
+    private final Map<ChunkKey, AtomicInteger> chunkActivations = new ConcurrentHashMap<>();
+    private final LongLongHashMap blocks = new LongLongHashMap();
+    private final LongLongHashMap chunks = new LongLongHashMap();
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < ACTIVATIONS; i++) {
+            int chunk = i % 256;
+            int slot = i / 256;
+            xs[i] = ((chunk & 15) << 4) + (slot & 15);
+            ys[i] = 64 + (slot >> 4);
+            zs[i] = ((chunk >> 4) << 4) + (slot & 15);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACTIVATIONS)
+    public int objectKeys() {
+        int exceeded = 0;
+        for (int i = 0; i < ACTIVATIONS; i++) {
+            BlockData data = blockActivations.computeIfAbsent(new BlockKey(WORLD, xs[i], ys[i], zs[i]), k -> new BlockData());
+            if (data.count.getAndUpdate(v -> v < THRESHOLD ? v + 1 : v) >= THRESHOLD) {
+                exceeded++;
+            }
+
+            AtomicInteger counter = chunkActivations.computeIfAbsent(new ChunkKey(WORLD, xs[i] >> 4, zs[i] >> 4), k -> new AtomicInteger());
+            if (counter.getAndUpdate(v -> v < THRESHOLD ? v + 1 : v) >= THRESHOLD) {
+                exceeded++;
+            }
+        }
+
+        return exceeded;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACTIVATIONS)
+    public int packedKeys() {
+        int exceeded = 0;
+        for (int i = 0; i < ACTIVATIONS; i++) {
+            if (!increment(blocks, ChunkKeys.block(xs[i], ys[i], zs[i]))) {
+                exceeded++;
+            }
+
+            if (!increment(chunks, ChunkKeys.pack(xs[i] >> 4, zs[i] >> 4))) {
+                exceeded++;
+            }
+        }
+
+        return exceeded;
+    }
+
+    private static boolean increment(LongLongHashMap table, long key) {
+        long count = table.get(key);
+        if (count >= THRESHOLD) {
+            return false;
+        }
+
+        table.put(key, count + 1);
+        return true;
+    }
+
+    // Copies of the keys the limiter used before
+    private record BlockKey(String world, int x, int y, int z) {
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BlockKey k)) return false;
+            return x == k.x && y == k.y && z == k.z && world.equals(k.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(world, x, y, z);
+        }
+    }
+
+    private record ChunkKey(String world, int x, int z) {
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ChunkKey k)) return false;
+            return x == k.x && z == k.z && world.equals(k.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(world, x, z);
+        }
+    }
+
+    private static class BlockData {
+        final AtomicInteger count = new AtomicInteger(0);
+    }
+}
@@ -2,27 +2,47 @@ package com.clearlagenhanced;
 
 import com.clearlagenhanced.commands.LaggCommand;
 import com.clearlagenhanced.database.DatabaseManager;
+import com.clearlagenhanced.listeners.ChunkTelemetryListener;
+import com.clearlagenhanced.listeners.EntityCensusListener;
 import com.clearlagenhanced.listeners.HopperLimiterListener;
 import com.clearlagenhanced.listeners.MiscEntityLimiterListener;
 import com.clearlagenhanced.listeners.MobLimiterListener;
 import com.clearlagenhanced.listeners.RedstoneLimiterListener;
 import com.clearlagenhanced.listeners.SpawnerLimiterListener;
+import com.clearlagenhanced.listeners.TickDurationListener;
+import com.clearlagenhanced.listeners.TileEntityIndexListener;
+import com.clearlagenhanced.managers.ChunkCostEngine;
+import com.clearlagenhanced.managers.ChunkFinder;
+import com.clearlagenhanced.managers.ChunkTelemetry;
 import com.clearlagenhanced.managers.ConfigManager;
+import com.clearlagenhanced.managers.EntityCensus;
 import com.clearlagenhanced.managers.EntityManager;
 import com.clearlagenhanced.managers.GUIManager;
+import com.clearlagenhanced.managers.LagGovernor;
+import com.clearlagenhanced.managers.LaggyChunkIndexer;
 import com.clearlagenhanced.managers.LagPreventionManager;
+import com.clearlagenhanced.managers.MemoryMonitor;
 import com.clearlagenhanced.managers.MessageManager;
 import com.clearlagenhanced.managers.MiscEntitySweepService;
+import com.clearlagenhanced.managers.ModuleProfiler;
 import com.clearlagenhanced.managers.NotificationManager;
 import com.clearlagenhanced.managers.PerformanceManager;
+import com.clearlagenhanced.managers.PerformanceSampler;
+import com.clearlagenhanced.managers.TileEntityIndex;
 import com.clearlagenhanced.utils.MessageUtils;
 import com.clearlagenhanced.utils.VersionCheck;
 import com.tcoded.folialib.FoliaLib;
 import com.tcoded.folialib.impl.PlatformScheduler;
 import lombok.Getter;
 import org.bukkit.command.PluginCommand;
+import org.bukkit.entity.Entity;
 import org.bukkit.event.HandlerList;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
 
 public class ClearLaggEnhanced extends JavaPlugin {
 
@@ -38,9 +58,23 @@ public class ClearLaggEnhanced extends JavaPlugin {
     @Getter private LagPreventionManager lagPreventionManager;
     @Getter private PerformanceManager performanceManager;
     @Getter private NotificationManager notificationManager;
+    @Getter private EntityCensus entityCensus;
+    @Getter private TileEntityIndex tileEntityIndex;
+    @Getter private LagGovernor lagGovernor;
+    @Getter private ChunkTelemetry chunkTelemetry;
+    @Getter private ChunkCostEngine chunkCostEngine;
+    @Getter private ChunkFinder chunkFinder;
+    @Getter private LaggyChunkIndexer laggyChunkIndexer;
+    @Getter private ModuleProfiler moduleProfiler;
+    @Getter private MemoryMonitor memoryMonitor;
     private GUIManager guiManager;
 
+    @Getter private RedstoneLimiterListener redstoneLimiter;
+    @Getter private HopperLimiterListener hopperLimiter;
     private MiscEntitySweepService miscSweep;
+    private PerformanceSampler performanceSampler;
+
+    private final List<Predicate<Entity>> clearProtections = new CopyOnWriteArrayList<>();
 
     public static PlatformScheduler scheduler() {
       return scheduler;
@@ -55,18 +89,36 @@ public class ClearLaggEnhanced extends JavaPlugin {
 
         saveDefaultConfig();
         initializeManagers();
+        entityCensus.start();
+        tileEntityIndex.start();
+        lagGovernor.start();
+        laggyChunkIndexer.start();
+        moduleProfiler.start();
+        memoryMonitor.start();
         registerCommands();
         registerListeners();
         startMiscLimiterIfEnabled();
+        startPerformanceSamplerIfEnabled();
 
         getLogger().info("ClearLaggEnhanced has been enabled!");
     }
 
     @Override
     public void onDisable() {
-        closeQuietlyDatabase();
+        // Stop everything that writes to the database first; cancelling a sweep records its partial clear
+        stopPerformanceSamplerIfRunning();
+        shutdown(memoryMonitor);
         shutdown(entityManager);
+        shutdown(laggyChunkIndexer);
+        closeQuietlyDatabase();
+        shutdown(entityCensus);
+        shutdown(tileEntityIndex);
+        shutdown(chunkTelemetry);
+        shutdown(lagGovernor);
         shutdown(guiManager);
+        shutdown(redstoneLimiter);
+        shutdown(hopperLimiter);
+        shutdown(moduleProfiler);
         stopMiscLimiterIfRunning();
 
         getLogger().info("ClearLaggEnhanced has been disabled!");
@@ -76,12 +128,42 @@ public class ClearLaggEnhanced extends JavaPlugin {
         return guiManager;
     }
 
+    /**
+     * Register an extra protection for entity clearing (e.g. entities inside a protected region).
+     * Entities matching the predicate are never removed by a clear. The predicate runs on the
+     * thread owning the entity and should be cheap and allocation-free.
+     * @param protection Predicate returning true for entities that must be kept
+     */
+    public void registerClearProtection(@NotNull Predicate<Entity> protection) {
+        clearProtections.add(protection);
+        if (entityManager != null) {
+            entityManager.reloadPolicy();
+        }
+    }
+
+    public void unregisterClearProtection(@NotNull Predicate<Entity> protection) {
+        if (clearProtections.remove(protection) && entityManager != null) {
+            entityManager.reloadPolicy();
+        }
+    }
+
+    public List<Predicate<Entity>> getClearProtections() {
+        return clearProtections;
+    }
+
     public void reloadAll() {
         HandlerList.unregisterAll(this);
 
         shutdown(entityManager);
         shutdown(guiManager);
+        shutdown(redstoneLimiter);
+        shutdown(hopperLimiter);
+        shutdown(lagGovernor);
+        shutdown(laggyChunkIndexer);
+        shutdown(moduleProfiler);
+        shutdown(memoryMonitor);
         stopMiscLimiterIfRunning();
+        stopPerformanceSamplerIfRunning();
 
         if (configManager != null) {
             configManager.reload();
@@ -95,31 +177,42 @@ public class ClearLaggEnhanced extends JavaPlugin {
 
         MessageUtils.initialize(messageManager);
 
+        moduleProfiler = new ModuleProfiler(this);
+        memoryMonitor = new MemoryMonitor(this);
         entityManager = new EntityManager(this);
+        lagGovernor = new LagGovernor(this);
         lagPreventionManager = new LagPreventionManager(this);
+        chunkCostEngine = new ChunkCostEngine(this);
+        chunkFinder = new ChunkFinder(this);
+        laggyChunkIndexer = new LaggyChunkIndexer(this);
         performanceManager = new PerformanceManager(this);
         notificationManager = new NotificationManager(this);
         guiManager = new GUIManager(this);
+        lagGovernor.start();
+        laggyChunkIndexer.start();
+        moduleProfiler.start();
+        memoryMonitor.start();
 
         registerListeners();
-        final HopperLimiterListener hopperListener = new HopperLimiterListener(this);
-        getServer().getPluginManager().registerEvents(hopperListener, this);
-        try {
-            hopperListener.rescanLoadedChunks();
-        } catch (NoSuchMethodError | Exception ignored) {
-        }
-
         startMiscLimiterIfEnabled();
-
-        getServer().getPluginManager().registerEvents(new VersionCheck(this), this);
+        startPerformanceSamplerIfEnabled();
     }
 
     private void initializeManagers() {
         configManager = new ConfigManager(this);
         messageManager = new MessageManager(this);
         databaseManager = new DatabaseManager(this);
+        entityCensus = new EntityCensus(this);
+        tileEntityIndex = new TileEntityIndex(this);
+        chunkTelemetry = new ChunkTelemetry(this);
+        moduleProfiler = new ModuleProfiler(this);
+        memoryMonitor = new MemoryMonitor(this);
         entityManager = new EntityManager(this);
+        lagGovernor = new LagGovernor(this);
         lagPreventionManager = new LagPreventionManager(this);
+        chunkCostEngine = new ChunkCostEngine(this);
+        chunkFinder = new ChunkFinder(this);
+        laggyChunkIndexer = new LaggyChunkIndexer(this);
         performanceManager = new PerformanceManager(this);
         notificationManager = new NotificationManager(this);
         guiManager = new GUIManager(this);
@@ -140,9 +233,15 @@ public class ClearLaggEnhanced extends JavaPlugin {
     }
 
     private void registerListeners() {
+        getServer().getPluginManager().registerEvents(new EntityCensusListener(entityCensus), this);
+        getServer().getPluginManager().registerEvents(new TileEntityIndexListener(tileEntityIndex), this);
+        getServer().getPluginManager().registerEvents(new ChunkTelemetryListener(chunkTelemetry), this);
+        getServer().getPluginManager().registerEvents(new TickDurationListener(performanceManager), this);
         getServer().getPluginManager().registerEvents(new MobLimiterListener(this), this);
-        getServer().getPluginManager().registerEvents(new RedstoneLimiterListener(this), this);
-        getServer().getPluginManager().registerEvents(new HopperLimiterListener(this), this);
+        redstoneLimiter = new RedstoneLimiterListener(this);
+        getServer().getPluginManager().registerEvents(redstoneLimiter, this);
+        hopperLimiter = new HopperLimiterListener(this);
+        getServer().getPluginManager().registerEvents(hopperLimiter, this);
         getServer().getPluginManager().registerEvents(new SpawnerLimiterListener(this), this);
         getServer().getPluginManager().registerEvents(new VersionCheck(this), this);
     }
@@ -166,6 +265,22 @@ public class ClearLaggEnhanced extends JavaPlugin {
         }
     }
 
+    private void startPerformanceSamplerIfEnabled() {
+        if (!getConfigManager().getBoolean("performance.sampler.enabled", false)) {
+            return;
+        }
+
+        performanceSampler = new PerformanceSampler(this);
+        performanceSampler.start();
+    }
+
+    private void stopPerformanceSamplerIfRunning() {
+        if (performanceSampler != null) {
+            performanceSampler.shutdown();
+            performanceSampler = null;
+        }
+    }
+
     private void closeQuietlyDatabase() {
         if (databaseManager != null) {
             databaseManager.close();
@@ -177,6 +292,24 @@ public class ClearLaggEnhanced extends JavaPlugin {
             gm.shutdown();
         } else if (o instanceof EntityManager em) {
             em.shutdown();
+        } else if (o instanceof EntityCensus ec) {
+            ec.shutdown();
+        } else if (o instanceof TileEntityIndex ti) {
+            ti.shutdown();
+        } else if (o instanceof ChunkTelemetry ct) {
+            ct.shutdown();
+        } else if (o instanceof LagGovernor lg) {
+            lg.shutdown();
+        } else if (o instanceof LaggyChunkIndexer li) {
+            li.shutdown();
+        } else if (o instanceof ModuleProfiler mp) {
+            mp.shutdown();
+        } else if (o instanceof MemoryMonitor mm) {
+            mm.shutdown();
+        } else if (o instanceof RedstoneLimiterListener rl) {
+            rl.shutdown();
+        } else if (o instanceof HopperLimiterListener hl) {
+            hl.shutdown();
         }
     }
 }
@@ -15,6 +15,9 @@ public enum CommandRegistry {
     TPS("tps", new TpsCommand()),
     RAM("ram", new RamCommand()),
     CHUNKFINDER("chunkfinder", new ChunkFinderCommand()),
+    REDSTONE("redstone", new RedstoneCommand()),
+    HOPPERS("hoppers", new HoppersCommand()),
+    PROFILE("profile", new ProfileCommand()),
     ADMIN("admin", new AdminCommand()),
     RELOAD("reload", new ReloadCommand());
 
@@ -2,24 +2,82 @@ package com.clearlagenhanced.commands.subcommands;
 
 import com.clearlagenhanced.ClearLaggEnhanced;
 import com.clearlagenhanced.commands.SubCommand;
+import com.clearlagenhanced.database.DatabaseManager;
+import com.clearlagenhanced.managers.ChunkCostEngine;
+import com.clearlagenhanced.managers.ChunkFinder;
+import com.clearlagenhanced.managers.LaggyChunkIndexer;
 import com.clearlagenhanced.utils.MessageUtils;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class ChunkFinderCommand implements SubCommand {
 
     @Override
     public boolean execute(@NotNull CommandSender sender, @NotNull String[] args) {
+        if (args.length > 0 && args[0].equalsIgnoreCase("global")) {
+            sendGlobal(sender);
+            return true;
+        }
+
         if (!(sender instanceof Player player)) {
             MessageUtils.sendMessage(sender, "errors.player-only");
             return true;
         }
 
-        ClearLaggEnhanced.getInstance().getPerformanceManager().findLaggyChunksAsync(player);
+        ChunkFinder chunkFinder = ClearLaggEnhanced.getInstance().getChunkFinder();
+        if (args.length > 0 && args[0].equalsIgnoreCase("cancel")) {
+            if (!chunkFinder.cancel(player)) {
+                MessageUtils.sendMessage(sender, "chunkfinder.not-running");
+            }
+
+            return true;
+        }
+
+        ChunkCostEngine.Component sortBy = ChunkCostEngine.Component.SCORE;
+        if (args.length > 0) {
+            sortBy = ChunkCostEngine.Component.fromString(args[0]);
+            if (sortBy == null) {
+                MessageUtils.sendMessage(sender, "chunkfinder.usage");
+                return true;
+            }
+        }
+
+        chunkFinder.scan(player, sortBy);
         return true;
     }
 
+    private void sendGlobal(@NotNull CommandSender sender) {
+        LaggyChunkIndexer indexer = ClearLaggEnhanced.getInstance().getLaggyChunkIndexer();
+        if (!indexer.isEnabled()) {
+            MessageUtils.sendMessage(sender, "chunkfinder.global-disabled");
+            return;
+        }
+
+        indexer.getTop().thenAccept(chunks -> {
+            if (chunks.isEmpty()) {
+                MessageUtils.sendMessage(sender, "chunkfinder.global-none");
+                return;
+            }
+
+            Map<String, String> header = new ConcurrentHashMap<>();
+            header.put("count", String.valueOf(chunks.size()));
+            MessageUtils.sendMessage(sender, "chunkfinder.global-header", header);
+            for (DatabaseManager.LaggyChunkData chunk : chunks) {
+                Map<String, String> ph = new ConcurrentHashMap<>();
+                ph.put("world", chunk.world());
+                ph.put("x", String.valueOf(chunk.chunkX()));
+                ph.put("z", String.valueOf(chunk.chunkZ()));
+                ph.put("count", String.valueOf(chunk.entityCount()));
+                ph.put("score", String.format("%.1f", chunk.score()));
+                MessageUtils.sendMessage(sender, "chunkfinder.global-entry", ph);
+            }
+        });
+    }
+
     @Override
     public String getPermission() {
         return "CLE.chunkfinder";
@@ -15,15 +15,14 @@ public class ClearCommand implements SubCommand {
     public boolean execute(@NotNull CommandSender sender, @NotNull String[] args) {
         MessageUtils.sendMessage(sender, "commands.clear.starting");
 
-        ClearLaggEnhanced.scheduler().runAsync(task -> {
-            long startTime = System.currentTimeMillis();
-            int cleared = ClearLaggEnhanced.getInstance().getEntityManager().clearEntities();
-            long duration = System.currentTimeMillis() - startTime;
-
+        ClearLaggEnhanced.getInstance().getEntityManager().clearEntitiesAsync().thenAccept(report -> {
             Map<String, String> ph = new ConcurrentHashMap<>();
-            ph.put("count", String.valueOf(cleared));
-            ph.put("time", String.valueOf(duration));
+            ph.put("count", String.valueOf(report.cleared()));
+            ph.put("time", String.valueOf(report.durationMs()));
             MessageUtils.sendMessage(sender, "notifications.clear-complete", ph);
+        }).exceptionally(ex -> {
+            MessageUtils.sendMessage(sender, "notifications.clear-failed");
+            return null;
         });
 
         return true;
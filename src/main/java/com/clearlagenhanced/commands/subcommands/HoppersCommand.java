@@ -0,0 +1,61 @@
+package com.clearlagenhanced.commands.subcommands;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.commands.SubCommand;
+import com.clearlagenhanced.listeners.HopperLimiterListener;
+import com.clearlagenhanced.managers.HopperChainAnalyzer;
+import com.clearlagenhanced.managers.MessageManager;
+import com.clearlagenhanced.utils.MessageUtils;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class HoppersCommand implements SubCommand {
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String[] args) {
+        ClearLaggEnhanced plugin = ClearLaggEnhanced.getInstance();
+        HopperLimiterListener limiter = plugin.getHopperLimiter();
+        if (limiter == null || !limiter.isChainTrackingEnabled()) {
+            MessageUtils.sendMessage(sender, "hopper.chains-disabled");
+            return true;
+        }
+
+        List<HopperChainAnalyzer.Chain> chains = limiter.getTopChains();
+        if (chains.isEmpty()) {
+            MessageUtils.sendMessage(sender, "hopper.top-none");
+            return true;
+        }
+
+        MessageManager messages = plugin.getMessageManager();
+        MessageUtils.sendMessage(sender, "hopper.top-header");
+        for (HopperChainAnalyzer.Chain chain : chains) {
+            Map<String, String> ph = new ConcurrentHashMap<>();
+            ph.put("world", chain.world());
+            ph.put("x", String.valueOf(chain.x()));
+            ph.put("y", String.valueOf(chain.y()));
+            ph.put("z", String.valueOf(chain.z()));
+            ph.put("hoppers", String.valueOf(chain.hoppers()));
+            ph.put("rate", String.format("%.1f", chain.rate()));
+            ph.put("status", chain.throttled()
+                    ? messages.getRawMessage("hopper.status.throttled", "throttled")
+                    : messages.getRawMessage("hopper.status.normal", "normal"));
+            MessageUtils.sendMessage(sender, "hopper.top-entry", ph);
+        }
+
+        return true;
+    }
+
+    @Override
+    public String getPermission() {
+        return "CLE.hoppers";
+    }
+
+    @Override
+    public String getHelpMessageKey() {
+        return "commands.help.hoppers";
+    }
+}
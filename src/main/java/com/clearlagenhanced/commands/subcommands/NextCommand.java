@@ -2,6 +2,7 @@ package com.clearlagenhanced.commands.subcommands;
 
 import com.clearlagenhanced.ClearLaggEnhanced;
 import com.clearlagenhanced.commands.SubCommand;
+import com.clearlagenhanced.managers.EntityManager;
 import com.clearlagenhanced.utils.MessageUtils;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
@@ -13,14 +14,24 @@ public class NextCommand implements SubCommand {
 
     @Override
     public boolean execute(@NotNull CommandSender sender, @NotNull String[] args) {
-        long timeUntilNext = ClearLaggEnhanced.getInstance().getEntityManager().getTimeUntilNextClear();
+        EntityManager entityManager = ClearLaggEnhanced.getInstance().getEntityManager();
+        double progress = entityManager.getSweepProgress();
+        if (progress >= 0) {
+            Map<String, String> ph = new ConcurrentHashMap<>();
+            ph.put("progress", String.format("%.0f", progress));
+            ph.put("count", String.valueOf(entityManager.getSweepCleared()));
+            MessageUtils.sendMessage(sender, "next-clear.in-progress", ph);
+            return true;
+        }
+
+        long timeUntilNext = entityManager.getTimeUntilNextClear();
 
         if (timeUntilNext == -1) {
             MessageUtils.sendMessage(sender, "next-clear.disabled");
             return true;
         }
 
-        String formattedTime = ClearLaggEnhanced.getInstance().getEntityManager().getFormattedTimeUntilNextClear();
+        String formattedTime = entityManager.getFormattedTimeUntilNextClear();
         Map<String, String> ph = new ConcurrentHashMap<>();
         ph.put("time", formattedTime);
         MessageUtils.sendMessage(sender, "next-clear.scheduled", ph);
@@ -0,0 +1,66 @@
+package com.clearlagenhanced.commands.subcommands;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.commands.SubCommand;
+import com.clearlagenhanced.managers.ModuleProfiler;
+import com.clearlagenhanced.utils.MessageUtils;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ProfileCommand implements SubCommand {
+
+    private static final double TICK_NANOS = 50_000_000.0;
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String[] args) {
+        ModuleProfiler profiler = ClearLaggEnhanced.getInstance().getModuleProfiler();
+        if (!profiler.isEnabled()) {
+            MessageUtils.sendMessage(sender, "profile.disabled");
+            return true;
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("reset")) {
+            profiler.reset();
+            MessageUtils.sendMessage(sender, "profile.reset");
+            return true;
+        }
+
+        long ticks = profiler.sample(ModuleProfiler.Module.MOB_LIMITER).ticks();
+        Map<String, String> header = new ConcurrentHashMap<>();
+        header.put("ticks", String.valueOf(ticks));
+        MessageUtils.sendMessage(sender, "profile.header", header);
+
+        double total = 0.0;
+        for (ModuleProfiler.Module module : ModuleProfiler.Module.values()) {
+            ModuleProfiler.Sample sample = profiler.sample(module);
+            total += sample.nanosPerTick();
+
+            Map<String, String> ph = new ConcurrentHashMap<>();
+            ph.put("module", module.displayName());
+            ph.put("per-tick", String.format("%,.0f", sample.nanosPerTick()));
+            ph.put("percent", String.format("%.3f", sample.nanosPerTick() / TICK_NANOS * 100.0));
+            ph.put("calls", String.valueOf(sample.calls()));
+            ph.put("per-call", String.format("%,.0f", sample.nanosPerCall()));
+            MessageUtils.sendMessage(sender, "profile.entry", ph);
+        }
+
+        Map<String, String> footer = new ConcurrentHashMap<>();
+        footer.put("per-tick", String.format("%,.0f", total));
+        footer.put("percent", String.format("%.3f", total / TICK_NANOS * 100.0));
+        MessageUtils.sendMessage(sender, "profile.total", footer);
+        return true;
+    }
+
+    @Override
+    public String getPermission() {
+        return "CLE.profile";
+    }
+
+    @Override
+    public String getHelpMessageKey() {
+        return "commands.help.profile";
+    }
+}
@@ -2,7 +2,9 @@ package com.clearlagenhanced.commands.subcommands;
 
 import com.clearlagenhanced.ClearLaggEnhanced;
 import com.clearlagenhanced.commands.SubCommand;
+import com.clearlagenhanced.managers.MemoryMonitor;
 import com.clearlagenhanced.utils.MessageUtils;
+import com.clearlagenhanced.utils.TickHistogram;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
@@ -32,9 +34,47 @@ public class RamCommand implements SubCommand {
         Map<String, String> maxPh = new ConcurrentHashMap<>();
         maxPh.put("max", String.valueOf(maxMemory));
         MessageUtils.sendMessage(sender, "performance.ram.max", maxPh);
+
+        MemoryMonitor monitor = ClearLaggEnhanced.getInstance().getMemoryMonitor();
+        if (monitor.hasData()) {
+            Map<String, String> livePh = new ConcurrentHashMap<>();
+            livePh.put("live", String.valueOf(monitor.getLiveSetBytes() / 1024 / 1024));
+            livePh.put("percent", String.format("%.1f", monitor.getLiveSetPercentage()));
+            MessageUtils.sendMessage(sender, monitor.isMemoryHigh() ? "performance.ram.live-high" : "performance.ram.live", livePh);
+        } else {
+            MessageUtils.sendMessage(sender, "performance.ram.live-unknown");
+        }
+
+        Map<String, String> allocationPh = new ConcurrentHashMap<>();
+        allocationPh.put("rate", String.format("%.1f", monitor.getAllocationRate() / 1024 / 1024));
+        MessageUtils.sendMessage(sender, "performance.ram.allocation", allocationPh);
+
+        sendGcStats(sender, "1m", monitor.getGcStatsMinute());
+        sendGcStats(sender, "5m", monitor.getGcStatsFiveMinutes());
+
+        for (MemoryMonitor.PoolUsage pool : monitor.getPoolUsage()) {
+            Map<String, String> poolPh = new ConcurrentHashMap<>();
+            poolPh.put("pool", pool.name());
+            poolPh.put("used", String.valueOf(pool.used() / 1024 / 1024));
+            poolPh.put("committed", String.valueOf(pool.committed() / 1024 / 1024));
+            poolPh.put("max", pool.max() < 0 ? "-" : String.valueOf(pool.max() / 1024 / 1024));
+            poolPh.put("after-gc", pool.usedAfterGc() < 0 ? "-" : String.valueOf(pool.usedAfterGc() / 1024 / 1024));
+            MessageUtils.sendMessage(sender, "performance.ram.pool", poolPh);
+        }
+
         return true;
     }
 
+    private void sendGcStats(@NotNull CommandSender sender, @NotNull String window, @NotNull TickHistogram.Stats stats) {
+        Map<String, String> ph = new ConcurrentHashMap<>();
+        ph.put("window", window);
+        ph.put("count", String.valueOf(stats.samples()));
+        ph.put("p50", String.format("%.1f", stats.p50()));
+        ph.put("p99", String.format("%.1f", stats.p99()));
+        ph.put("max", String.format("%.1f", stats.max()));
+        MessageUtils.sendMessage(sender, "performance.ram.gc", ph);
+    }
+
     @Override
     public String getPermission() {
         return "CLE.ram";
@@ -0,0 +1,65 @@
+package com.clearlagenhanced.commands.subcommands;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.commands.SubCommand;
+import com.clearlagenhanced.listeners.RedstoneLimiterListener;
+import com.clearlagenhanced.managers.MessageManager;
+import com.clearlagenhanced.utils.MessageUtils;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class RedstoneCommand implements SubCommand {
+
+    @Override
+    public boolean execute(@NotNull CommandSender sender, @NotNull String[] args) {
+        if (args.length == 0 || !args[0].equalsIgnoreCase("top")) {
+            MessageUtils.sendMessage(sender, "redstone.usage");
+            return true;
+        }
+
+        ClearLaggEnhanced plugin = ClearLaggEnhanced.getInstance();
+        RedstoneLimiterListener limiter = plugin.getRedstoneLimiter();
+        if (limiter == null || !limiter.isHotspotTrackingEnabled()) {
+            MessageUtils.sendMessage(sender, "redstone.hotspots-disabled");
+            return true;
+        }
+
+        List<RedstoneLimiterListener.Hotspot> hotspots = limiter.getTopHotspots();
+        if (hotspots.isEmpty()) {
+            MessageUtils.sendMessage(sender, "redstone.top-none");
+            return true;
+        }
+
+        MessageManager messages = plugin.getMessageManager();
+        MessageUtils.sendMessage(sender, "redstone.top-header");
+        for (RedstoneLimiterListener.Hotspot hotspot : hotspots) {
+            Map<String, String> ph = new ConcurrentHashMap<>();
+            ph.put("world", hotspot.world());
+            ph.put("x", String.valueOf(hotspot.chunkX()));
+            ph.put("z", String.valueOf(hotspot.chunkZ()));
+            ph.put("rate", String.format("%.1f", hotspot.rate()));
+            ph.put("status", switch (hotspot.level()) {
+                case 2 -> messages.getRawMessage("redstone.status.frozen", "frozen");
+                case 1 -> messages.getRawMessage("redstone.status.halved", "halved");
+                default -> messages.getRawMessage("redstone.status.normal", "normal");
+            });
+            MessageUtils.sendMessage(sender, "redstone.top-entry", ph);
+        }
+
+        return true;
+    }
+
+    @Override
+    public String getPermission() {
+        return "CLE.redstone";
+    }
+
+    @Override
+    public String getHelpMessageKey() {
+        return "commands.help.redstone";
+    }
+}
@@ -2,7 +2,9 @@ package com.clearlagenhanced.commands.subcommands;
 
 import com.clearlagenhanced.ClearLaggEnhanced;
 import com.clearlagenhanced.commands.SubCommand;
+import com.clearlagenhanced.managers.PerformanceManager;
 import com.clearlagenhanced.utils.MessageUtils;
+import com.clearlagenhanced.utils.TickHistogram;
 import org.bukkit.command.CommandSender;
 import org.jetbrains.annotations.NotNull;
 
@@ -13,10 +15,32 @@ public class TpsCommand implements SubCommand {
 
     @Override
     public boolean execute(@NotNull CommandSender sender, @NotNull String[] args) {
-        double tps = ClearLaggEnhanced.getInstance().getPerformanceManager().getTPS();
+        PerformanceManager performanceManager = ClearLaggEnhanced.getInstance().getPerformanceManager();
         Map<String, String> ph = new ConcurrentHashMap<>();
-        ph.put("tps", String.format("%.2f", tps));
+        ph.put("tps", String.format("%.2f", performanceManager.getTPS()));
         MessageUtils.sendMessage(sender, "performance.tps", ph);
+
+        for (PerformanceManager.TickWindow window : PerformanceManager.TickWindow.values()) {
+            TickHistogram.Stats stats = performanceManager.getTickStats(window);
+            if (stats.samples() == 0) {
+                Map<String, String> msptPh = new ConcurrentHashMap<>();
+                msptPh.put("mspt", String.format("%.2f", performanceManager.getMSPT()));
+                MessageUtils.sendMessage(sender, "performance.mspt-average", msptPh);
+                break;
+            }
+
+            Map<String, String> msptPh = new ConcurrentHashMap<>();
+            msptPh.put("window", window.label());
+            msptPh.put("p50", String.format("%.1f", stats.p50()));
+            msptPh.put("p95", String.format("%.1f", stats.p95()));
+            msptPh.put("p99", String.format("%.1f", stats.p99()));
+            msptPh.put("max", String.format("%.1f", stats.max()));
+            MessageUtils.sendMessage(sender, "performance.mspt", msptPh);
+        }
+
+        Map<String, String> entityPh = new ConcurrentHashMap<>();
+        entityPh.put("count", String.valueOf(performanceManager.getTotalEntities()));
+        MessageUtils.sendMessage(sender, "performance.entities", entityPh);
         return true;
     }
 
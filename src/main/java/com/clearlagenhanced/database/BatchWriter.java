@@ -0,0 +1,162 @@
+package com.clearlagenhanced.database;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Single-writer queue that groups database writes into one transaction every
+ * flush interval, or as soon as the queue holds enough rows.
+ */
+public class BatchWriter {
+
+    @FunctionalInterface
+    public interface Binder {
+        void bind(@NotNull PreparedStatement stmt) throws SQLException;
+    }
+
+    private record PendingWrite(@NotNull String sql, @NotNull Binder binder) {
+    }
+
+    private final DataSource dataSource;
+    private final Logger logger;
+    private final int maxRows;
+    private final ScheduledExecutorService executor;
+    private final ConcurrentLinkedQueue<PendingWrite> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    public BatchWriter(@NotNull DataSource dataSource, @NotNull Logger logger, @NotNull String threadName,
+                       long flushIntervalMs, int maxRows) {
+        this.dataSource = dataSource;
+        this.logger = logger;
+        this.maxRows = Math.max(1, maxRows);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = Math.max(50L, flushIntervalMs);
+        executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue a write. Never blocks; the statement is executed by the writer thread on the next flush.
+     * @param sql SQL statement, identical strings are batched together
+     * @param binder Binds the parameters of this row
+     */
+    public void enqueue(@NotNull String sql, @NotNull Binder binder) {
+        queue.add(new PendingWrite(sql, binder));
+        if (queued.incrementAndGet() >= maxRows && flushScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            } catch (Exception ignored) {
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        if (queue.isEmpty()) {
+            return;
+        }
+
+        List<PendingWrite> batch = new ArrayList<>();
+        PendingWrite write;
+        while ((write = queue.poll()) != null) {
+            batch.add(write);
+        }
+
+        queued.addAndGet(-batch.size());
+
+        try (Connection conn = dataSource.getConnection()) {
+            boolean oldAuto = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            Map<String, PreparedStatement> statements = new HashMap<>();
+            try {
+                // Consecutive rows of the same statement share one JDBC batch; switching
+                // statements executes the pending batch first so queue order is preserved.
+                PreparedStatement current = null;
+                for (PendingWrite pending : batch) {
+                    PreparedStatement stmt = statements.get(pending.sql());
+                    if (stmt == null) {
+                        stmt = conn.prepareStatement(pending.sql());
+                        statements.put(pending.sql(), stmt);
+                    }
+
+                    if (current != null && current != stmt) {
+                        current.executeBatch();
+                    }
+
+                    current = stmt;
+                    pending.binder().bind(stmt);
+                    stmt.addBatch();
+                }
+
+                if (current != null) {
+                    current.executeBatch();
+                }
+
+                conn.commit();
+            } catch (Throwable e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                for (PreparedStatement stmt : statements.values()) {
+                    stmt.close();
+                }
+
+                conn.setAutoCommit(oldAuto);
+            }
+        } catch (SQLException e) {
+            failedFlushes.incrementAndGet();
+            logger.warning("Failed to write " + batch.size() + " queued database rows: " + e.getMessage());
+        } catch (Throwable e) {
+            // Letting this escape would cancel the fixed-delay flush for good
+            failedFlushes.incrementAndGet();
+            logger.severe("Unexpected error writing " + batch.size() + " queued database rows: " + e);
+        }
+    }
+
+    /**
+     * @return Number of flushes whose rows were dropped because the transaction failed
+     */
+    public long getFailedFlushes() {
+        return failedFlushes.get();
+    }
+
+    /**
+     * Stop the writer, flushing whatever is still queued
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        flush();
+    }
+}
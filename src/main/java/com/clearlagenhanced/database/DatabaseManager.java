@@ -1,15 +1,22 @@
 package com.clearlagenhanced.database;
 
 import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.managers.ClearReport;
+import com.google.gson.JsonObject;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
 import javax.sql.DataSource;
 import java.io.File;
 import java.sql.*;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 public class DatabaseManager {
@@ -17,6 +24,8 @@ public class DatabaseManager {
     private final ClearLaggEnhanced plugin;
     private final String databasePath;
     private HikariDataSource dataSource;
+    // Nulled by close() while region and async threads may still be queueing writes
+    private volatile BatchWriter writer;
 
     public DatabaseManager(ClearLaggEnhanced plugin) {
         this.plugin = plugin;
@@ -32,6 +41,9 @@ public class DatabaseManager {
         try {
             setupPool();
             createTables();
+            writer = new BatchWriter(dataSource, plugin.getLogger(), plugin.getName() + "-DB-Writer",
+                    plugin.getConfigManager().getInt("database.batch.flush-interval-ms", 5000),
+                    plugin.getConfigManager().getInt("database.batch.max-rows", 100));
             plugin.getLogger().info("Database initialized successfully!");
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to initialize database: " + e.getMessage());
@@ -96,59 +108,163 @@ public class DatabaseManager {
             stmt.execute(performanceDataTable);
             stmt.execute(laggyChunksTable);
 
+            addColumnIfMissing(conn, "clearing_history", "regions_touched", "INTEGER NOT NULL DEFAULT 0");
+            addColumnIfMissing(conn, "clearing_history", "type_breakdown", "TEXT");
+            addColumnIfMissing(conn, "clearing_history", "world_breakdown", "TEXT");
+
+            addColumnIfMissing(conn, "performance_data", "epoch_ms", "INTEGER");
+            addColumnIfMissing(conn, "performance_data", "mspt", "REAL");
+            addColumnIfMissing(conn, "performance_data", "chunk_count", "INTEGER");
+            addColumnIfMissing(conn, "performance_data", "gc_count", "INTEGER");
+            addColumnIfMissing(conn, "performance_data", "gc_time_ms", "INTEGER");
+            addColumnIfMissing(conn, "performance_data", "resolution", "INTEGER NOT NULL DEFAULT 0");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_performance_data_time ON performance_data(resolution, epoch_ms)");
+
+            addColumnIfMissing(conn, "laggy_chunks", "score", "REAL NOT NULL DEFAULT 0");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_laggy_chunks_world ON laggy_chunks(world)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_laggy_chunks_entity_count ON laggy_chunks(entity_count DESC)");
-            stmt.execute("CREATE INDEX IF NOT EXISTS idx_laggy_chunks_composite ON laggy_chunks(world, chunk_x, chunk_z)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_laggy_chunks_score ON laggy_chunks(score DESC)");
+            // Rows are upserted per chunk; older tables may hold duplicates from the delete-and-reinsert days
+            stmt.execute("DROP INDEX IF EXISTS idx_laggy_chunks_composite");
+            stmt.execute("DELETE FROM laggy_chunks WHERE id NOT IN (SELECT MAX(id) FROM laggy_chunks GROUP BY world, chunk_x, chunk_z)");
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_laggy_chunks_chunk ON laggy_chunks(world, chunk_x, chunk_z)");
         }
     }
 
-    public CompletableFuture<Void> logClearingHistory(int entitiesCleared, List<String> worlds,
-                                                      String clearType, long durationMs) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT INTO clearing_history (timestamp, entities_cleared, worlds_affected, clear_type, duration_ms)
-                VALUES (?, ?, ?, ?, ?)
-            """;
+    private void addColumnIfMissing(Connection conn, String table, String column, String definition) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name"));
+            }
+        }
 
-            try (Connection conn = dataSource().getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, LocalDateTime.now().toString());
-                stmt.setInt(2, entitiesCleared);
-                stmt.setString(3, String.join(",", worlds));
-                stmt.setString(4, clearType);
-                stmt.setLong(5, durationMs);
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                plugin.getLogger().warning("Failed to log clearing history: " + e.getMessage());
+        if (!columns.contains(column)) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
             }
+        }
+    }
+
+    /**
+     * Queue a clear for the clearing_history table. Returns immediately; the row is
+     * written by the batch writer together with any other pending rows.
+     * @param report Report of the finished clear
+     * @param clearType How the clear was started (AUTO, MANUAL, ...)
+     */
+    public void logClearingHistory(ClearReport report, String clearType) {
+        BatchWriter writer = this.writer;
+        if (writer == null) {
+            return;
+        }
+
+        final String timestamp = LocalDateTime.now().toString();
+        final JsonObject byType = new JsonObject();
+        report.clearedByType().forEach((type, count) -> byType.addProperty(type.name(), count));
+        final JsonObject byWorld = new JsonObject();
+        for (Map.Entry<String, Integer> entry : report.clearedByWorld().entrySet()) {
+            byWorld.addProperty(entry.getKey(), entry.getValue());
+        }
+
+        final String sql = """
+            INSERT INTO clearing_history (timestamp, entities_cleared, worlds_affected, clear_type, duration_ms,
+                                          regions_touched, type_breakdown, world_breakdown)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+        """;
+
+        writer.enqueue(sql, stmt -> {
+            stmt.setString(1, timestamp);
+            stmt.setInt(2, report.cleared());
+            stmt.setString(3, String.join(",", report.clearedByWorld().keySet()));
+            stmt.setString(4, clearType);
+            stmt.setLong(5, report.durationMs());
+            stmt.setInt(6, report.regionsTouched());
+            stmt.setString(7, byType.toString());
+            stmt.setString(8, byWorld.toString());
         });
     }
 
-    public CompletableFuture<Void> logPerformanceData(double tps, long ramUsed, long ramMax, int entityCount) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                INSERT INTO performance_data (timestamp, tps, ram_used, ram_max, entity_count)
-                VALUES (?, ?, ?, ?, ?)
-            """;
+    /**
+     * Queue one raw performance sample (resolution 0) for the performance_data table
+     * @param epochMs Sample time in epoch milliseconds
+     * @param tps TPS at sample time
+     * @param mspt Average tick time in milliseconds
+     * @param ramUsed Used heap in bytes
+     * @param ramMax Max heap in bytes
+     * @param entityCount Entities across all worlds
+     * @param chunkCount Loaded chunks across all worlds
+     * @param gcCount Total GC collections since JVM start
+     * @param gcTimeMs Total GC time since JVM start
+     */
+    public void logPerformanceSample(long epochMs, double tps, double mspt, long ramUsed, long ramMax,
+                                     int entityCount, int chunkCount, long gcCount, long gcTimeMs) {
+        BatchWriter writer = this.writer;
+        if (writer == null) {
+            return;
+        }
 
-            try (Connection conn = dataSource().getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, LocalDateTime.now().toString());
-                stmt.setDouble(2, tps);
-                stmt.setLong(3, ramUsed);
-                stmt.setLong(4, ramMax);
-                stmt.setInt(5, entityCount);
-                stmt.executeUpdate();
-            } catch (SQLException e) {
-                plugin.getLogger().warning("Failed to log performance data: " + e.getMessage());
-            }
+        final String sql = """
+            INSERT INTO performance_data (timestamp, epoch_ms, tps, mspt, ram_used, ram_max, entity_count,
+                                          chunk_count, gc_count, gc_time_ms, resolution)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)
+        """;
+
+        writer.enqueue(sql, stmt -> {
+            stmt.setString(1, Instant.ofEpochMilli(epochMs).atZone(ZoneId.systemDefault()).toLocalDateTime().toString());
+            stmt.setLong(2, epochMs);
+            stmt.setDouble(3, tps);
+            stmt.setDouble(4, mspt);
+            stmt.setLong(5, ramUsed);
+            stmt.setLong(6, ramMax);
+            stmt.setInt(7, entityCount);
+            stmt.setInt(8, chunkCount);
+            stmt.setLong(9, gcCount);
+            stmt.setLong(10, gcTimeMs);
         });
     }
 
+    /**
+     * Queue downsampling of performance_data: raw rows older than the raw cutoff are averaged
+     * into one row per minute (resolution 60), and every row older than the retention cutoff is deleted.
+     * @param rawCutoffMs Epoch millis (minute aligned) before which raw samples are downsampled
+     * @param retentionCutoffMs Epoch millis before which all samples are deleted
+     */
+    public void downsamplePerformanceData(long rawCutoffMs, long retentionCutoffMs) {
+        BatchWriter writer = this.writer;
+        if (writer == null) {
+            return;
+        }
+
+        final String aggregateSql = """
+            INSERT INTO performance_data (timestamp, epoch_ms, tps, mspt, ram_used, ram_max, entity_count,
+                                          chunk_count, gc_count, gc_time_ms, resolution)
+            SELECT MIN(timestamp), (epoch_ms / 60000) * 60000, AVG(tps), AVG(mspt), CAST(AVG(ram_used) AS INTEGER),
+                   MAX(ram_max), CAST(AVG(entity_count) AS INTEGER), CAST(AVG(chunk_count) AS INTEGER),
+                   MAX(gc_count), MAX(gc_time_ms), 60
+            FROM performance_data
+            WHERE resolution = 0 AND epoch_ms < ?
+            GROUP BY epoch_ms / 60000
+        """;
+
+        writer.enqueue(aggregateSql, stmt -> stmt.setLong(1, rawCutoffMs));
+        writer.enqueue("DELETE FROM performance_data WHERE resolution = 0 AND epoch_ms < ?", stmt -> stmt.setLong(1, rawCutoffMs));
+        writer.enqueue("DELETE FROM performance_data WHERE epoch_ms < ?", stmt -> stmt.setLong(1, retentionCutoffMs));
+    }
+
+    /**
+     * Highest scoring chunks of the laggy chunk index
+     * @param limit Maximum number of rows
+     * @return Rows ordered by score, highest first; empty if the database is disabled
+     */
     public CompletableFuture<List<LaggyChunkData>> getLaggyChunks(int limit) {
+        if (dataSource == null) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
         return CompletableFuture.supplyAsync(() -> {
             List<LaggyChunkData> chunks = new ArrayList<>();
-            String sql = "SELECT world, chunk_x, chunk_z, entity_count FROM laggy_chunks ORDER BY entity_count DESC LIMIT ?";
+            String sql = "SELECT world, chunk_x, chunk_z, entity_count, score FROM laggy_chunks ORDER BY score DESC LIMIT ?";
 
             try (Connection conn = dataSource().getConnection();
                  PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -159,7 +275,8 @@ public class DatabaseManager {
                                 rs.getString("world"),
                                 rs.getInt("chunk_x"),
                                 rs.getInt("chunk_z"),
-                                rs.getInt("entity_count")
+                                rs.getInt("entity_count"),
+                                rs.getDouble("score")
                         ));
                     }
                 }
@@ -171,39 +288,81 @@ public class DatabaseManager {
         });
     }
 
-    public CompletableFuture<Void> updateLaggyChunks(List<LaggyChunkData> chunks) {
-        return CompletableFuture.runAsync(() -> {
-            String deleteSql = "DELETE FROM laggy_chunks";
-            String insertSql = """
-                    INSERT INTO laggy_chunks (world, chunk_x, chunk_z, entity_count, last_scanned)
-                    VALUES (?, ?, ?, ?, ?)
-                """;
-            try (Connection conn = dataSource().getConnection()) {
-                boolean oldAuto = conn.getAutoCommit();
-                conn.setAutoCommit(false);
-                try (Statement del = conn.createStatement()) {
-                    del.execute(deleteSql);
-                }
-                try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
-                    for (LaggyChunkData chunk : chunks) {
-                        stmt.setString(1, chunk.world());
-                        stmt.setInt(2, chunk.chunkX());
-                        stmt.setInt(3, chunk.chunkZ());
-                        stmt.setInt(4, chunk.entityCount());
-                        stmt.setString(5, LocalDateTime.now().toString());
-                        stmt.addBatch();
-                    }
-                    stmt.executeBatch();
-                }
-                conn.commit();
-                conn.setAutoCommit(oldAuto);
-            } catch (SQLException e) {
-                plugin.getLogger().warning("Failed to update laggy chunks: " + e.getMessage());
-            }
+    /**
+     * Queue an insert or update of one laggy_chunks row, keyed by world and chunk coordinates
+     * @param chunk Chunk to store
+     */
+    public void upsertLaggyChunk(LaggyChunkData chunk) {
+        BatchWriter writer = this.writer;
+        if (writer == null) {
+            return;
+        }
+
+        final String timestamp = LocalDateTime.now().toString();
+        final String sql = """
+            INSERT INTO laggy_chunks (world, chunk_x, chunk_z, entity_count, score, last_scanned)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT(world, chunk_x, chunk_z) DO UPDATE SET
+                entity_count = excluded.entity_count, score = excluded.score, last_scanned = excluded.last_scanned
+        """;
+
+        writer.enqueue(sql, stmt -> {
+            stmt.setString(1, chunk.world());
+            stmt.setInt(2, chunk.chunkX());
+            stmt.setInt(3, chunk.chunkZ());
+            stmt.setInt(4, chunk.entityCount());
+            stmt.setDouble(5, chunk.score());
+            stmt.setString(6, timestamp);
         });
     }
 
+    /**
+     * Queue removal of one laggy_chunks row
+     * @param world World name
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     */
+    public void removeLaggyChunk(String world, int chunkX, int chunkZ) {
+        BatchWriter writer = this.writer;
+        if (writer == null) {
+            return;
+        }
+
+        writer.enqueue("DELETE FROM laggy_chunks WHERE world = ? AND chunk_x = ? AND chunk_z = ?", stmt -> {
+            stmt.setString(1, world);
+            stmt.setInt(2, chunkX);
+            stmt.setInt(3, chunkZ);
+        });
+    }
+
+    /**
+     * Queue removal of every laggy_chunks row, used when the index starts over
+     */
+    public void clearLaggyChunks() {
+        BatchWriter writer = this.writer;
+        if (writer == null) {
+            return;
+        }
+
+        writer.enqueue("DELETE FROM laggy_chunks", stmt -> {
+        });
+    }
+
+    /**
+     * @return Number of batched writes dropped so far; callers caching what they wrote can resync when it changes
+     */
+    public long getWriteFailures() {
+        BatchWriter writer = this.writer;
+        return writer == null ? 0L : writer.getFailedFlushes();
+    }
+
     public void close() {
+        BatchWriter writer = this.writer;
+        if (writer != null) {
+            this.writer = null;
+            writer.shutdown();
+        }
+
         if (dataSource != null) {
             try {
                 dataSource.close();
@@ -213,6 +372,6 @@ public class DatabaseManager {
         }
     }
 
-    public record LaggyChunkData(String world, int chunkX, int chunkZ, int entityCount) {
+    public record LaggyChunkData(String world, int chunkX, int chunkZ, int entityCount, double score) {
     }
 }
@@ -0,0 +1,30 @@
+package com.clearlagenhanced.listeners;
+
+import com.clearlagenhanced.managers.ChunkTelemetry;
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.jetbrains.annotations.NotNull;
+
+public class ChunkTelemetryListener implements Listener {
+
+    private final ChunkTelemetry telemetry;
+
+    public ChunkTelemetryListener(@NotNull ChunkTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(@NotNull ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        telemetry.chunkUnloaded(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(@NotNull WorldUnloadEvent event) {
+        telemetry.worldUnloaded(event.getWorld());
+    }
+}
@@ -0,0 +1,42 @@
+package com.clearlagenhanced.listeners;
+
+import com.clearlagenhanced.managers.EntityCensus;
+import com.destroystokyo.paper.event.entity.EntityAddToWorldEvent;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.jetbrains.annotations.NotNull;
+
+public class EntityCensusListener implements Listener {
+
+    private final EntityCensus census;
+
+    public EntityCensusListener(@NotNull EntityCensus census) {
+        this.census = census;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityAdd(@NotNull EntityAddToWorldEvent event) {
+        census.entityAdded(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityRemove(@NotNull EntityRemoveFromWorldEvent event) {
+        census.entityRemoved(event.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(@NotNull ChunkUnloadEvent event) {
+        Chunk chunk = event.getChunk();
+        census.chunkUnloaded(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(@NotNull WorldUnloadEvent event) {
+        census.worldUnloaded(event.getWorld());
+    }
+}
@@ -1,50 +1,119 @@
 package com.clearlagenhanced.listeners;
 
 import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.managers.ChunkTelemetry;
 import com.clearlagenhanced.managers.ConfigManager;
+import com.clearlagenhanced.managers.HopperChainAnalyzer;
+import com.clearlagenhanced.managers.LagGovernor;
+import com.clearlagenhanced.managers.ModuleProfiler;
+import com.clearlagenhanced.managers.TileEntityIndex;
+import com.clearlagenhanced.utils.ChunkKeys;
+import com.clearlagenhanced.utils.LongLongHashMap;
 import com.tcoded.folialib.impl.PlatformScheduler;
 import org.bukkit.Chunk;
 import org.bukkit.World;
-import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.block.Block;
+import org.bukkit.Tag;
 import org.bukkit.block.BlockState;
 import org.bukkit.block.Hopper;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryMoveItemEvent;
-import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.event.world.ChunkUnloadEvent;
-import org.bukkit.event.block.BlockPlaceEvent;
-import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Caps hopper item moves to a fixed budget per chunk per game tick. Hoppers of a chunk are
+ * served round-robin: once a hopper has moved in the current round it waits until every
+ * hopper that was refused for budget has had a turn, so large sorting systems keep a steady,
+ * predictable throughput instead of stalling.
+ * Optionally, repeated single-item moves are coalesced into one batch move every few ticks.
+ */
 public class HopperLimiterListener implements Listener {
 
-    private final ClearLaggEnhanced plugin;
+    // Chunk state is packed as (game tick << 32 | round << 16 | refused flag << 15 | moves used)
+    private static final int MAX_BUDGET = 0x7FFF;
+    private static final long REFUSED = 1L << 15;
+    // Hopper state is packed as (game tick << 32 | round of the last granted move)
+    private static final long IDLE_TICKS = 40L;
+    private static final long ABSENT = -1L;
+    private static final int EXPIRE_SLOTS_PER_MOVE = 2;
+    // Containers whose every slot accepts any item from any side; only these are coalesced
+    private static final Set<InventoryType> STORAGE = EnumSet.of(InventoryType.CHEST, InventoryType.BARREL,
+            InventoryType.HOPPER, InventoryType.DROPPER, InventoryType.DISPENSER, InventoryType.SHULKER_BOX);
+
+    private final TileEntityIndex tileIndex;
     private final PlatformScheduler scheduler;
+    private final LagGovernor governor;
+    private final ChunkTelemetry telemetry;
+    private final ModuleProfiler profiler;
 
     private final boolean enabled;
-    private final int baseCooldownTicks;
+    private final int movesPerTick;
     private final int maxHoppersPerChunk;
-    private final Map<String, Long> lastMoveTickByChunk = new ConcurrentHashMap<>();
-    private final Map<String, Integer> hopperCountByChunk = new ConcurrentHashMap<>();
+    private final int regionShift;
+    private final Map<UUID, Map<Long, RegionTables>> regions = new ConcurrentHashMap<>();
+    private final ThreadLocal<RegionTables[]> lastRegion = ThreadLocal.withInitial(() -> new RegionTables[1]);
+    // Null when chain tracking is disabled
+    private final HopperChainAnalyzer chains;
+
+    // Coalescing: one move of up to batchSize items per hopper every coalesceTicks
+    private final boolean coalesce;
+    private final long coalesceTicks;
+    private final int batchSize;
 
     public HopperLimiterListener(@NotNull ClearLaggEnhanced plugin) {
-        this.plugin = plugin;
+        this.tileIndex = plugin.getTileEntityIndex();
         this.scheduler = ClearLaggEnhanced.scheduler();
+        this.governor = plugin.getLagGovernor();
+        this.telemetry = plugin.getChunkTelemetry();
+        this.profiler = plugin.getModuleProfiler();
         ConfigManager configManager = plugin.getConfigManager();
 
         this.enabled = configManager.getBoolean("lag-prevention.hopper-limiter.enabled", true);
-        this.baseCooldownTicks = Math.max(1, configManager.getInt("lag-prevention.hopper-limiter.transfer-cooldown", 8));
+        this.movesPerTick = Math.max(1, Math.min(MAX_BUDGET, configManager.getInt("lag-prevention.hopper-limiter.moves-per-tick-per-chunk", 8)));
         this.maxHoppersPerChunk = Math.max(0, configManager.getInt("lag-prevention.hopper-limiter.max-hoppers-per-chunk", 0));
+        this.regionShift = Math.max(0, Math.min(10, configManager.getInt("threading.region-chunk-shift", 4)));
+        this.coalesce = configManager.getBoolean("lag-prevention.hopper-limiter.coalesce.enabled", false);
+        this.coalesceTicks = Math.max(1, Math.min(IDLE_TICKS, configManager.getInt("lag-prevention.hopper-limiter.coalesce.interval-ticks", 32)));
+        this.batchSize = Math.max(1, Math.min(64, configManager.getInt("lag-prevention.hopper-limiter.coalesce.batch-size", 4)));
+
+        if (enabled && configManager.getBoolean("lag-prevention.hopper-limiter.chains.enabled", true)) {
+            this.chains = new HopperChainAnalyzer(plugin);
+            chains.start();
+        } else {
+            this.chains = null;
+        }
+    }
+
+    public void shutdown() {
+        if (chains != null) {
+            chains.shutdown();
+        }
+    }
+
+    public boolean isChainTrackingEnabled() {
+        return chains != null;
+    }
+
+    /**
+     * Most demanding hopper chains, highest first
+     * @return Immutable ranking, empty when chain tracking is disabled
+     */
+    public List<HopperChainAnalyzer.Chain> getTopChains() {
+        return chains == null ? List.of() : chains.getTopChains();
     }
 
     @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
@@ -53,108 +122,229 @@ public class HopperLimiterListener implements Listener {
             return;
         }
 
+        long started = profiler.begin();
+        try {
+            limitMove(event);
+        } finally {
+            profiler.stop(ModuleProfiler.Module.HOPPER_LIMITER, started);
+        }
+    }
+
+    private void limitMove(@NotNull InventoryMoveItemEvent event) {
         Inventory initiatorInv = event.getInitiator();
 
-        InventoryHolder holder = initiatorInv.getHolder();
+        // No snapshot: the holder is only used for its position
+        InventoryHolder holder = initiatorInv.getHolder(false);
         if (!(holder instanceof Hopper hopper)) {
             return;
         }
 
         World world = hopper.getWorld();
+        int chunkX = hopper.getX() >> 4;
+        int chunkZ = hopper.getZ() >> 4;
+        // Telemetry measures demand, so it is recorded even while the limits stand down
+        telemetry.recordHopperMove(world, chunkX, chunkZ);
 
-        long now = world.getFullTime();
-        Chunk chunk = hopper.getLocation().getChunk();
-        String key = chunkKey(chunk);
+        LagGovernor.Level pressure = governor.current();
+        if (pressure.vanilla()) {
+            return;
+        }
+
+        long chunkKey = ChunkKeys.pack(chunkX, chunkZ);
+        long hopperKey = ChunkKeys.block(hopper.getX(), hopper.getY(), hopper.getZ());
+        long now = world.getGameTime() & 0xFFFFFFFFL;
+        RegionTables tables = regionTables(world, chunkX, chunkZ);
+
+        boolean batch = coalesce && canBatch(event.getSource(), event.getDestination(), event.getItem());
+        if (batch) {
+            long last = tables.batches.getOrDefault(hopperKey, ABSENT);
+            if (last != ABSENT && ((now - (last >>> 32)) & 0xFFFFFFFFL) < coalesceTicks) {
+                // Waiting for this hopper's next batch
+                event.setCancelled(true);
+                return;
+            }
+        }
 
-        int effectiveCooldown = baseCooldownTicks;
+        if (chains != null && !chains.mayMove(world, hopperKey)) {
+            event.setCancelled(true);
+            return;
+        }
+
+        int budget = Math.min(MAX_BUDGET, LagGovernor.Level.scale(movesPerTick, pressure.hopperBudget()));
         if (maxHoppersPerChunk > 0) {
-            int count = countHoppersInChunkCached(chunk);
+            int count = tileIndex.count(world, chunkX, chunkZ, Material.HOPPER);
             if (count > maxHoppersPerChunk) {
-                int excess = count - maxHoppersPerChunk;
-                effectiveCooldown += Math.max(0, excess * 2);
+                // Crowded chunks share a proportionally smaller budget
+                budget = Math.max(1, (int) ((long) budget * maxHoppersPerChunk / count));
             }
         }
 
-        long last = lastMoveTickByChunk.getOrDefault(key, now - effectiveCooldown);
-
-        if ((now - last) < effectiveCooldown) {
+        if (!tryMove(tables, chunkKey, hopperKey, budget, now)) {
             event.setCancelled(true);
-            lastMoveTickByChunk.put(key, now);
             return;
         }
 
-        lastMoveTickByChunk.put(key, now);
-    }
+        if (chains != null) {
+            chains.charge(world, hopperKey);
+        }
 
-    private static String chunkKey(@NotNull Chunk chunk) {
-        return chunk.getWorld().getName() + ":" + chunk.getX() + "," + chunk.getZ();
+        if (batch) {
+            // Replace this single-item move with one batch move on the next tick of the owning region
+            event.setCancelled(true);
+            tables.batches.put(hopperKey, now << 32);
+            tables.batchCursor = expireSome(tables.batches, tables.batchCursor, now);
+            Inventory source = event.getSource();
+            Inventory destination = event.getDestination();
+            ItemStack item = event.getItem();
+            scheduler.runAtLocation(hopper.getLocation(), task -> moveBatch(source, destination, item));
+        }
     }
 
-    private int countHoppersInChunkCached(@NotNull Chunk chunk) {
-        String key = chunkKey(chunk);
-        Integer cached = hopperCountByChunk.get(key);
-        if (cached != null) {
-            return cached;
+    /**
+     * Batch moves go through addItem/removeItem, which ignore slot and side rules, so only plain
+     * storage blocks qualify; furnaces, brewing stands and the like keep their vanilla moves.
+     */
+    private static boolean canBatch(@NotNull Inventory source, @NotNull Inventory destination, @NotNull ItemStack item) {
+        if (!isStorageBlock(source) || !isStorageBlock(destination)) {
+            return false;
         }
 
-        Location location = new Location(chunk.getWorld(), (chunk.getX() << 4), 0, (chunk.getZ() << 4));
-        scheduler.runAtLocation(location, task -> hopperCountByChunk.put(key, scanHoppersInChunk(chunk)));
-        return 0;
+        return destination.getType() != InventoryType.SHULKER_BOX || !Tag.SHULKER_BOXES.isTagged(item.getType());
     }
 
-    private static int scanHoppersInChunk(@NotNull Chunk chunk) {
-        final AtomicInteger count = new AtomicInteger(0);
+    private static boolean isStorageBlock(@NotNull Inventory inventory) {
+        return STORAGE.contains(inventory.getType()) && inventory.getHolder(false) instanceof BlockState;
+    }
 
-        try {
-            BlockState[] tiles = chunk.getTileEntities();
-            if (tiles != null && tiles.length > 0) {
-                for (BlockState st : tiles) {
-                    if (st instanceof Hopper) {
-                        count.incrementAndGet();
-                    }
-                }
+    /**
+     * Move up to batchSize items similar to the given one, as far as the destination has room.
+     * Skipped if either container was removed in the meantime.
+     */
+    private void moveBatch(@NotNull Inventory source, @NotNull Inventory destination, @NotNull ItemStack item) {
+        if (!isLive(source) || !isLive(destination)) {
+            return;
+        }
 
-                return count.get();
+        int available = 0;
+        for (ItemStack stack : source.getStorageContents()) {
+            if (stack != null && stack.isSimilar(item)) {
+                available += stack.getAmount();
             }
-        } catch (NoSuchMethodError | UnsupportedOperationException ignored) {
-        }
-
-        int baseX = chunk.getX() << 4;
-        int baseZ = chunk.getZ() << 4;
-        int minY = chunk.getWorld().getMinHeight();
-        int maxY = chunk.getWorld().getMaxHeight();
-
-        for (int x = 0; x < 16; x++) {
-            for (int z = 0; z < 16; z++) {
-                for (int y = minY; y < maxY; y++) {
-                    Block b = chunk.getWorld().getBlockAt(baseX + x, y, baseZ + z);
-                    if (b.getType() == Material.HOPPER) {
-                        BlockState st = b.getState();
-                        if (st instanceof Hopper) {
-                            count.incrementAndGet();
-                        }
-                    }
+        }
+
+        int amount = Math.min(batchSize, available);
+        if (amount <= 0) {
+            return;
+        }
+
+        ItemStack moving = item.clone();
+        moving.setAmount(amount);
+        int moved = amount;
+        for (ItemStack leftover : destination.addItem(moving).values()) {
+            moved -= leftover.getAmount();
+        }
+
+        if (moved > 0) {
+            ItemStack removing = item.clone();
+            removing.setAmount(moved);
+            source.removeItem(removing);
+        }
+    }
+
+    private static boolean isLive(@NotNull Inventory inventory) {
+        if (!(inventory.getHolder(false) instanceof BlockState state)) {
+            return false;
+        }
+
+        return state.getBlock().getState(false) instanceof InventoryHolder current && current.getInventory().equals(inventory);
+    }
+
+    /**
+     * Grant one move to a hopper if its chunk has budget left this tick and the hopper has not
+     * moved yet in the current round. A new round starts on the first move of a tick that
+     * follows a tick without any budget refusal.
+     * @return true if the move may proceed
+     */
+    private boolean tryMove(@NotNull RegionTables tables, long chunkKey, long hopperKey, int budget, long now) {
+        long chunkState = tables.chunks.getOrDefault(chunkKey, ABSENT);
+        long round;
+        long used;
+        boolean refused;
+        if (chunkState == ABSENT) {
+            round = now & 0xFFFF;
+            used = 0;
+            refused = false;
+        } else {
+            round = (chunkState >>> 16) & 0xFFFF;
+            used = chunkState & MAX_BUDGET;
+            refused = (chunkState & REFUSED) != 0;
+            if ((chunkState >>> 32) != now) {
+                if (!refused) {
+                    round = (round + 1) & 0xFFFF;
                 }
+
+                used = 0;
+                refused = false;
             }
         }
 
-        return count.get();
+        long hopperState = tables.hoppers.getOrDefault(hopperKey, ABSENT);
+        boolean allowed;
+        if (hopperState != ABSENT && (hopperState & 0xFFFF) == round) {
+            // Already moved this round; let the hoppers that are still waiting go first
+            allowed = false;
+        } else if (used < budget) {
+            used++;
+            tables.hoppers.put(hopperKey, (now << 32) | round);
+            allowed = true;
+        } else {
+            refused = true;
+            allowed = false;
+        }
+
+        tables.chunks.put(chunkKey, (now << 32) | (round << 16) | (refused ? REFUSED : 0L) | used);
+        tables.chunkCursor = expireSome(tables.chunks, tables.chunkCursor, now);
+        tables.hopperCursor = expireSome(tables.hoppers, tables.hopperCursor, now);
+        return allowed;
     }
 
-    private static String chunkKey(@NotNull World w, int cx, int cz) {
-        return w.getName() + ":" + cx + "," + cz;
+    /**
+     * Drop a few entries that have not been touched for IDLE_TICKS
+     * @return Cursor to continue from on the next call
+     */
+    private static int expireSome(@NotNull LongLongHashMap entries, int cursor, long now) {
+        for (int i = 0; i < EXPIRE_SLOTS_PER_MOVE; i++) {
+            if (cursor >= entries.slots()) {
+                cursor = 0;
+            }
+
+            if (!entries.isFree(cursor) && ((now - (entries.valueAt(cursor) >>> 32)) & 0xFFFFFFFFL) >= IDLE_TICKS) {
+                entries.removeAt(cursor);
+            } else {
+                cursor++;
+            }
+        }
+
+        return cursor;
     }
 
-    @EventHandler
-    public void onChunkLoad(@NotNull ChunkLoadEvent event) {
-        if (!enabled) {
-            return;
+    /**
+     * Tables of the region section owning the chunk. Only the thread owning that section
+     * touches them; the last section used by each thread is cached.
+     */
+    private RegionTables regionTables(@NotNull World world, int chunkX, int chunkZ) {
+        UUID worldId = world.getUID();
+        long regionKey = ChunkKeys.region(chunkX, chunkZ, regionShift);
+        RegionTables[] cache = lastRegion.get();
+        RegionTables cached = cache[0];
+        if (cached != null && !cached.retired && cached.regionKey == regionKey && cached.worldId.equals(worldId)) {
+            return cached;
         }
 
-        Chunk chunk = event.getChunk();
-        final String key = chunkKey(chunk);
-        Location location = new Location(chunk.getWorld(), (chunk.getX() << 4), 0, (chunk.getZ() << 4));
-        scheduler.runAtLocation(location, task -> hopperCountByChunk.put(key, scanHoppersInChunk(chunk)));
+        RegionTables tables = regions.computeIfAbsent(worldId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(regionKey, key -> new RegionTables(worldId, key));
+        cache[0] = tables;
+        return tables;
     }
 
     @EventHandler
@@ -164,53 +354,63 @@ public class HopperLimiterListener implements Listener {
         }
 
         Chunk chunk = event.getChunk();
-        String key = chunkKey(chunk);
-        hopperCountByChunk.remove(key);
-        lastMoveTickByChunk.remove(key);
-    }
-
-    @EventHandler(ignoreCancelled = true)
-    public void onBlockPlace(@NotNull BlockPlaceEvent event) {
-        if (!enabled) {
+        Map<Long, RegionTables> worldRegions = regions.get(chunk.getWorld().getUID());
+        if (worldRegions == null) {
             return;
         }
 
-        if (event.getBlockPlaced().getType() != Material.HOPPER) {
+        long regionKey = ChunkKeys.region(chunk.getX(), chunk.getZ(), regionShift);
+        RegionTables tables = worldRegions.get(regionKey);
+        if (tables == null) {
             return;
         }
 
-        String key = chunkKey(event.getBlockPlaced().getChunk());
-        hopperCountByChunk.merge(key, 1, Integer::sum);
+        // Runs on the thread owning the chunk, which also owns its region tables
+        tables.chunks.remove(ChunkKeys.pack(chunk.getX(), chunk.getZ()));
+        removeHoppersIn(tables.hoppers, chunk.getX(), chunk.getZ());
+        removeHoppersIn(tables.batches, chunk.getX(), chunk.getZ());
+        // Retire only when nothing is left, so hoppers of neighbouring chunks keep their turn order
+        if (tables.chunks.isEmpty() && tables.hoppers.isEmpty() && tables.batches.isEmpty()) {
+            tables.retired = true;
+            worldRegions.remove(regionKey, tables);
+        }
     }
 
-    @EventHandler(ignoreCancelled = true)
-    public void onBlockBreak(@NotNull BlockBreakEvent event) {
-        if (!enabled) {
+    private static void removeHoppersIn(@NotNull LongLongHashMap entries, int chunkX, int chunkZ) {
+        if (entries.isEmpty()) {
             return;
         }
 
-        if (event.getBlock().getType() != Material.HOPPER) {
-            return;
+        int slot = 0;
+        while (slot < entries.slots()) {
+            long key = entries.keyAt(slot);
+            if (!entries.isFree(slot) && ChunkKeys.blockX(key) >> 4 == chunkX && ChunkKeys.blockZ(key) >> 4 == chunkZ) {
+                entries.removeAt(slot);
+            } else {
+                slot++;
+            }
         }
-
-        String key = chunkKey(event.getBlock().getChunk());
-        hopperCountByChunk.compute(key, (k, v) -> {
-            int current = (v == null ? 0 : v);
-            current = Math.max(0, current - 1);
-            return current; // Keep at 0 to avoid repeated lazy scans
-        });
     }
 
-    public void rescanLoadedChunks() {
-        for (World world : plugin.getServer().getWorlds()) {
-            for (Chunk chunk : world.getLoadedChunks()) {
-                final String key = chunkKey(chunk);
-                Location location = new Location(world, (chunk.getX() << 4), 0, (chunk.getZ() << 4));
-                scheduler.runAtLocation(location, task -> {
-                    hopperCountByChunk.put(key, scanHoppersInChunk(chunk));
-                    lastMoveTickByChunk.remove(key);
-                });
-            }
+    /**
+     * Move budgets of one region section. Only the thread owning the section reads or writes them.
+     */
+    private static final class RegionTables {
+        private final UUID worldId;
+        private final long regionKey;
+        private final LongLongHashMap chunks = new LongLongHashMap();
+        private final LongLongHashMap hoppers = new LongLongHashMap();
+        // Tick of each hopper's last batch move, in the upper 32 bits
+        private final LongLongHashMap batches = new LongLongHashMap();
+        private int chunkCursor;
+        private int hopperCursor;
+        private int batchCursor;
+        // Set once the section has been dropped from the map; cached references must not be reused
+        private boolean retired;
+
+        private RegionTables(@NotNull UUID worldId, long regionKey) {
+            this.worldId = worldId;
+            this.regionKey = regionKey;
         }
     }
 }
@@ -2,9 +2,13 @@ package com.clearlagenhanced.listeners;
 
 import com.clearlagenhanced.ClearLaggEnhanced;
 import com.clearlagenhanced.managers.ConfigManager;
+import com.clearlagenhanced.managers.EntityCensus;
+import com.clearlagenhanced.managers.LagGovernor;
 import com.clearlagenhanced.managers.LagPreventionManager;
+import com.clearlagenhanced.managers.ModuleProfiler;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
@@ -16,18 +20,23 @@ import org.bukkit.event.entity.SpawnerSpawnEvent;
 import org.jetbrains.annotations.NotNull;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 
 public class MobLimiterListener implements Listener {
 
     private final ClearLaggEnhanced plugin;
     private final LagPreventionManager limiter;
+    private final EntityCensus census;
+    private final LagGovernor governor;
+    private final ModuleProfiler profiler;
     private final boolean enablePerTypeLimits;
     private final Map<EntityType, Integer> perTypeLimits = new HashMap<>();
 
     public MobLimiterListener(@NotNull ClearLaggEnhanced plugin) {
         this.plugin = plugin;
         this.limiter = plugin.getLagPreventionManager();
+        this.census = plugin.getEntityCensus();
+        this.governor = plugin.getLagGovernor();
+        this.profiler = plugin.getModuleProfiler();
 
         // Load per-type limits from config
         ConfigManager config = plugin.getConfigManager();
@@ -54,51 +63,58 @@ public class MobLimiterListener implements Listener {
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
     public void onCreatureSpawn(@NotNull CreatureSpawnEvent event) {
-        LivingEntity entity = event.getEntity();
-        if (!isCountable(entity)) {
-            return;
+        long started = profiler.begin();
+        try {
+            if (isLimitReached(event.getEntity())) {
+                event.setCancelled(true);
+            }
+        } finally {
+            profiler.stop(ModuleProfiler.Module.MOB_LIMITER, started);
         }
+    }
 
-        Chunk chunk = entity.getLocation().getChunk();
-        EntityType entityType = entity.getType();
-
-        // Check global limit first
-        boolean globalLimitReached = limiter.isMobLimitReached(chunk);
-
-        // Check per-type limit
-        boolean typeLimitReached = isTypeLimitReached(chunk, entityType);
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onSpawnerSpawn(@NotNull SpawnerSpawnEvent event) {
+        long started = profiler.begin();
+        try {
+            if (isLimitReached(event.getEntity())) {
+                event.setCancelled(true);
+            }
+        } finally {
+            profiler.stop(ModuleProfiler.Module.MOB_LIMITER, started);
+        }
+    }
 
-        if (globalLimitReached || typeLimitReached) {
-            event.setCancelled(true);
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCreatureSpawnMonitor(@NotNull CreatureSpawnEvent event) {
+        long started = profiler.begin();
+        try {
+            final Chunk chunk = event.getEntity().getLocation().getChunk();
+            final Location location = event.getEntity().getLocation();
+            limiter.optimizeChunk(chunk, location);
+        } finally {
+            profiler.stop(ModuleProfiler.Module.MOB_LIMITER, started);
         }
     }
 
-    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
-    public void onSpawnerSpawn(@NotNull SpawnerSpawnEvent event) {
-        Entity entity = event.getEntity();
+    private boolean isLimitReached(@NotNull Entity entity) {
         if (!isCountable(entity)) {
-            return;
+            return false;
         }
 
-        Chunk chunk = entity.getLocation().getChunk();
+        Location location = entity.getLocation();
+        World world = location.getWorld();
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
         EntityType entityType = entity.getType();
 
         // Check global limit first
-        boolean globalLimitReached = limiter.isMobLimitReached(chunk);
+        boolean globalLimitReached = limiter.isMobLimitReached(world, chunkX, chunkZ);
 
         // Check per-type limit
-        boolean typeLimitReached = isTypeLimitReached(chunk, entityType);
+        boolean typeLimitReached = isTypeLimitReached(world, chunkX, chunkZ, entityType);
 
-        if (globalLimitReached || typeLimitReached) {
-            event.setCancelled(true);
-        }
-    }
-
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onCreatureSpawnMonitor(@NotNull CreatureSpawnEvent event) {
-        final Chunk chunk = event.getEntity().getLocation().getChunk();
-        final Location location = event.getEntity().getLocation();
-        limiter.optimizeChunk(chunk, location);
+        return globalLimitReached || typeLimitReached;
     }
 
     private boolean isCountable(@NotNull Entity entity) {
@@ -109,7 +125,7 @@ public class MobLimiterListener implements Listener {
         return entity.getType() != EntityType.PLAYER;
     }
 
-    private boolean isTypeLimitReached(@NotNull Chunk chunk, @NotNull EntityType entityType) {
+    private boolean isTypeLimitReached(@NotNull World world, int chunkX, int chunkZ, @NotNull EntityType entityType) {
         if (!enablePerTypeLimits) {
             return false;
         }
@@ -119,15 +135,11 @@ public class MobLimiterListener implements Listener {
             return false; // No limit configured for this type
         }
 
-        // Count entities of this specific type in the chunk atomically
-        AtomicInteger count = new AtomicInteger(0);
-
-        for (Entity entity : chunk.getEntities()) {
-            if (entity.getType() == entityType && entity instanceof LivingEntity) {
-                count.incrementAndGet();
-            }
+        LagGovernor.Level pressure = governor.current();
+        if (pressure.vanilla()) {
+            return false;
         }
 
-        return count.get() >= limit;
+        return census.isChunkLivingAtLeast(world, chunkX, chunkZ, entityType, LagGovernor.Level.scale(limit, pressure.mobCap()));
     }
 }
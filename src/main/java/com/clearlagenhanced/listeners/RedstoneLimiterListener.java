@@ -1,10 +1,15 @@
 package com.clearlagenhanced.listeners;
 
 import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.managers.ChunkTelemetry;
 import com.clearlagenhanced.managers.ConfigManager;
+import com.clearlagenhanced.managers.LagGovernor;
+import com.clearlagenhanced.managers.ModuleProfiler;
+import com.clearlagenhanced.utils.ChunkKeys;
+import com.clearlagenhanced.utils.LongLongHashMap;
 import com.tcoded.folialib.impl.PlatformScheduler;
 import com.tcoded.folialib.wrapper.task.WrappedTask;
-import org.bukkit.Chunk;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -18,61 +23,107 @@ import org.bukkit.event.block.BlockPistonRetractEvent;
 import org.bukkit.event.block.BlockRedstoneEvent;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Smart Redstone Limiter inspired by RedstoneLimiter plugin
  * Features:
  * - Block-level limiting (per individual block location)
  * - Chunk-level limiting (total activations per chunk)
- * - Time-based reset periods (configurable milliseconds)
+ * - Token buckets refilled continuously over the configured period (milliseconds)
+ * - Hotspot detection: chunks with a sustained activation rate get halved thresholds, then are frozen
+ * - Counters are region-local: each region section has its own tables, only touched by the thread
+ *   owning that section (Folia) or the main thread, so there are no locks or atomics on the hot path
  */
 public class RedstoneLimiterListener implements Listener {
 
+    private static final Material[] MATERIALS = Material.values();
+
+    // Bucket state is packed as (last refill tick << 32 | token units). A token is periodTicks units,
+    // so a bucket of capacity C refills exactly C units per tick and no fraction is ever dropped.
+    private static final long MILLIS_PER_TICK = 50L;
+    private static final long START_NANOS = System.nanoTime();
+    private static final long MAX_UNITS = 0xFFFFFFFFL;
+    private static final long ABSENT = -1L;
+    private static final int EXPIRE_SLOTS_PER_CHECK = 2;
+
+    // Hotspot escalation levels
+    private static final int LEVEL_NORMAL = 0;
+    private static final int LEVEL_HALVED = 1;
+    private static final int LEVEL_FROZEN = 2;
+    private static final int HEAT_HALF_LIVES_KEPT = 16;
+
     private final ClearLaggEnhanced plugin;
     private final PlatformScheduler scheduler;
+    private final LagGovernor governor;
+    private final ChunkTelemetry telemetry;
+    private final ModuleProfiler profiler;
     private final Set<String> worldFilter = new HashSet<>();
-    private WrappedTask resetTask;
+    private WrappedTask maintenanceTask;
 
     // Configuration
     private final boolean enabled;
-    private final long resetPeriodMs;
+    private final long periodTicks;
+    // Largest threshold whose bucket still fits in 32 bits of token units
+    private final int maxThreshold;
 
     // Block-level limiting
     private final boolean blockLimitEnabled;
-    private final Map<Material, Integer> blockThresholds = new HashMap<>();
+    private final int[] blockThresholds = new int[MATERIALS.length];
     private final int globalBlockThreshold;
-    private final Map<BlockKey, BlockData> blockActivations = new ConcurrentHashMap<>();
 
     // Chunk-level limiting
     private final boolean chunkLimitEnabled;
     private final int chunkThreshold;
-    private final Map<ChunkKey, AtomicInteger> chunkActivations = new ConcurrentHashMap<>();
+
+    // Activation tables per world and region section, keyed by packed block/chunk coordinates
+    private final int regionShift;
+    private final Map<UUID, Map<Long, RegionTables>> regions = new ConcurrentHashMap<>();
+    private final ThreadLocal<RegionTables[]> lastRegion = ThreadLocal.withInitial(() -> new RegionTables[1]);
+    private final AtomicBoolean maintaining = new AtomicBoolean();
 
     // Piston push limit
     private final int maxPistonPush;
 
-    // Tracking
-    private long lastResetTime = System.currentTimeMillis();
+    // Hotspot detection. Heat is an exponentially decaying activation count per chunk,
+    // packed as (last tick << 32 | float bits); decay factors are precomputed per elapsed tick.
+    private final boolean hotspotsEnabled;
+    private final double heatToRate;
+    private final double hotRate;
+    private final int escalateAfterChecks;
+    private final int topSize;
+    private final float[] heatDecay;
+    private volatile List<Hotspot> topHotspots = List.of();
 
     public RedstoneLimiterListener(@NotNull ClearLaggEnhanced plugin) {
         this.plugin = plugin;
         this.scheduler = ClearLaggEnhanced.scheduler();
+        this.governor = plugin.getLagGovernor();
+        this.telemetry = plugin.getChunkTelemetry();
+        this.profiler = plugin.getModuleProfiler();
         ConfigManager config = plugin.getConfigManager();
 
         // General settings
         this.enabled = config.getBoolean("lag-prevention.redstone-limiter.enabled", false);
-        this.resetPeriodMs = config.getInt("lag-prevention.redstone-limiter.reset-period-ms", 3000);
+        long resetPeriodMs = Math.max(MILLIS_PER_TICK, config.getInt("lag-prevention.redstone-limiter.reset-period-ms", 3000));
+        this.periodTicks = (resetPeriodMs + MILLIS_PER_TICK - 1) / MILLIS_PER_TICK;
+        this.maxThreshold = (int) Math.min(Integer.MAX_VALUE, MAX_UNITS / periodTicks);
 
         // Block-level settings
         this.blockLimitEnabled = config.getBoolean("lag-prevention.redstone-limiter.blocks.enabled", true);
-        this.globalBlockThreshold = config.getInt("lag-prevention.redstone-limiter.blocks.threshold.GLOBAL", 2);
+        this.globalBlockThreshold = clampThreshold(config.getInt("lag-prevention.redstone-limiter.blocks.threshold.GLOBAL", 2));
+        Arrays.fill(blockThresholds, globalBlockThreshold);
 
         // Load specific block thresholds
         Map<String, Object> thresholds = config.getConfigSection("lag-prevention.redstone-limiter.blocks.threshold");
@@ -82,7 +133,7 @@ public class RedstoneLimiterListener implements Listener {
                 try {
                     Material material = Material.valueOf(entry.getKey().toUpperCase());
                     int threshold = Integer.parseInt(entry.getValue().toString());
-                    blockThresholds.put(material, threshold);
+                    blockThresholds[material.ordinal()] = clampThreshold(threshold);
                 } catch (IllegalArgumentException e) {
                     plugin.getLogger().warning("Invalid material in redstone limiter config: " + entry.getKey());
                 }
@@ -91,35 +142,61 @@ public class RedstoneLimiterListener implements Listener {
 
         // Chunk-level settings
         this.chunkLimitEnabled = config.getBoolean("lag-prevention.redstone-limiter.chunks.enabled", true);
-        this.chunkThreshold = config.getInt("lag-prevention.redstone-limiter.chunks.threshold", 1024);
+        this.chunkThreshold = clampThreshold(config.getInt("lag-prevention.redstone-limiter.chunks.threshold", 1024));
 
         // Piston settings
         this.maxPistonPush = config.getInt("lag-prevention.redstone-limiter.max-piston-push", 12);
 
+        this.regionShift = Math.max(0, Math.min(10, config.getInt("threading.region-chunk-shift", 4)));
+
+        // Hotspot settings
+        this.hotspotsEnabled = config.getBoolean("lag-prevention.redstone-limiter.hotspots.enabled", true);
+        double halfLifeSeconds = Math.max(1, config.getInt("lag-prevention.redstone-limiter.hotspots.half-life-seconds", 10));
+        int halfLifeTicks = (int) (halfLifeSeconds * 20);
+        this.heatToRate = Math.log(2) / halfLifeSeconds;
+        this.hotRate = Math.max(1, config.getInt("lag-prevention.redstone-limiter.hotspots.hot-rate", 400));
+        this.escalateAfterChecks = Math.max(1, config.getInt("lag-prevention.redstone-limiter.hotspots.escalate-after-checks", 12));
+        this.topSize = Math.max(1, config.getInt("lag-prevention.redstone-limiter.hotspots.top-size", 10));
+        this.heatDecay = new float[halfLifeTicks * HEAT_HALF_LIVES_KEPT];
+        for (int i = 0; i < heatDecay.length; i++) {
+            heatDecay[i] = (float) Math.pow(0.5, (double) i / halfLifeTicks);
+        }
+
         // World filter
         worldFilter.addAll(config.getStringList("lag-prevention.redstone-limiter.worlds"));
 
-        // Start reset task
-        startResetTask();
+        if (enabled) {
+            long checkTicks = Math.max(1, config.getInt("lag-prevention.redstone-limiter.hotspots.check-interval-seconds", 5)) * 20L;
+            this.maintenanceTask = scheduler.runTimer(this::maintainRegions, checkTicks, checkTicks);
+        }
+    }
+
+    public void shutdown() {
+        if (maintenanceTask != null) {
+            scheduler.cancelTask(maintenanceTask);
+            maintenanceTask = null;
+        }
     }
 
-    private void startResetTask() {
-        // Reset counters based on configured period
-        long resetPeriodTicks = (resetPeriodMs / 50); // Convert ms to ticks
-        this.resetTask = scheduler.runTimer(this::resetCounters, resetPeriodTicks, resetPeriodTicks);
+    public boolean isHotspotTrackingEnabled() {
+        return enabled && hotspotsEnabled;
     }
 
-    private void resetCounters() {
-        blockActivations.clear();
-        chunkActivations.clear();
-        lastResetTime = System.currentTimeMillis();
+    /**
+     * Hottest chunks as of the last evaluation, hottest first
+     * @return Immutable ranking, at most hotspots.top-size entries
+     */
+    public List<Hotspot> getTopHotspots() {
+        return topHotspots;
     }
 
-    public void shutdown() {
-        if (resetTask != null) {
-            scheduler.cancelTask(resetTask);
-            resetTask = null;
+    private int clampThreshold(int threshold) {
+        if (threshold > maxThreshold) {
+            plugin.getLogger().warning("Redstone limiter threshold " + threshold + " is too large for reset-period-ms, using " + maxThreshold);
+            return maxThreshold;
         }
+
+        return threshold;
     }
 
     private boolean isEnabled() {
@@ -131,41 +208,335 @@ public class RedstoneLimiterListener implements Listener {
     }
 
     private int getBlockThreshold(@NotNull Material material) {
-        return blockThresholds.getOrDefault(material, globalBlockThreshold);
+        return blockThresholds[material.ordinal()];
+    }
+
+    private boolean checkLimits(@NotNull Block block) {
+        long started = profiler.begin();
+        try {
+            return takeTokens(block);
+        } finally {
+            profiler.stop(ModuleProfiler.Module.REDSTONE_LIMITER, started);
+        }
     }
 
-    private boolean checkBlockLimit(@NotNull Block block) {
-        if (!blockLimitEnabled) {
-            return false; // Not exceeded
+    /**
+     * Take one token from the block's and the chunk's bucket and check both limits.
+     * Allocation-free: buckets live in primitive tables keyed by packed coordinates.
+     * @param block Activated block
+     * @return true if the block or chunk bucket was empty
+     */
+    private boolean takeTokens(@NotNull Block block) {
+        int x = block.getX();
+        int z = block.getZ();
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        // Recorded before any early return: the rate is what the chunk asks for, not what gets through
+        telemetry.recordRedstone(block.getWorld(), chunkX, chunkZ);
+
+        LagGovernor.Level pressure = governor.current();
+        if (pressure.vanilla()) {
+            return false;
         }
 
-        Material material = block.getType();
-        int threshold = getBlockThreshold(material);
-        if (threshold <= 0) {
+        int blockThreshold = blockLimitEnabled ? LagGovernor.Level.scale(getBlockThreshold(block.getType()), pressure.redstoneThresholds()) : 0;
+        int chunkLimit = chunkLimitEnabled ? LagGovernor.Level.scale(chunkThreshold, pressure.redstoneThresholds()) : 0;
+        if (blockThreshold <= 0 && chunkLimit <= 0 && !hotspotsEnabled) {
             return false; // No limit
         }
 
-        BlockKey key = new BlockKey(block.getLocation());
-        BlockData data = blockActivations.computeIfAbsent(key, k -> new BlockData());
+        long chunkKey = ChunkKeys.pack(chunkX, chunkZ);
+        long now = currentTick();
+
+        RegionTables tables = regionTables(block.getWorld(), chunkX, chunkZ);
+        int level = LEVEL_NORMAL;
+        if (hotspotsEnabled) {
+            addHeat(tables.heat, chunkKey, now);
+            tables.heatCursor = expireSome(tables.heat, tables.heatCursor, now, heatDecay.length);
+            level = escalationLevel(tables.escalations.get(chunkKey));
+            if (level >= LEVEL_FROZEN) {
+                return true;
+            }
+        }
+
+        boolean blockExceeded = false;
+        if (blockThreshold > 0) {
+            int capacity = level == LEVEL_HALVED ? Math.max(1, blockThreshold / 2) : blockThreshold;
+            blockExceeded = !tryAcquire(tables.blocks, ChunkKeys.block(x, block.getY(), z), capacity, now);
+            tables.blockCursor = expireSome(tables.blocks, tables.blockCursor, now, periodTicks);
+        }
+
+        boolean chunkExceeded = false;
+        if (chunkLimit > 0) {
+            int capacity = level == LEVEL_HALVED ? Math.max(1, chunkLimit / 2) : chunkLimit;
+            chunkExceeded = !tryAcquire(tables.chunks, chunkKey, capacity, now);
+            tables.chunkCursor = expireSome(tables.chunks, tables.chunkCursor, now, periodTicks);
+        }
 
-        int prev = data.count.getAndUpdate(v -> v < threshold ? v + 1 : v);
-        return prev >= threshold;
+        return blockExceeded || chunkExceeded;
     }
 
-    private boolean checkChunkLimit(@NotNull Chunk chunk) {
-        if (!chunkLimitEnabled) {
-            return false; // Not exceeded
+    /**
+     * Tables of the region section owning the chunk. The calling thread owns that section, so the
+     * tables need no synchronization; the last section used by each thread is cached.
+     */
+    private RegionTables regionTables(@NotNull World world, int chunkX, int chunkZ) {
+        UUID worldId = world.getUID();
+        long regionKey = ChunkKeys.region(chunkX, chunkZ, regionShift);
+        RegionTables[] cache = lastRegion.get();
+        RegionTables cached = cache[0];
+        if (cached != null && !cached.retired && cached.regionKey == regionKey && cached.worldId.equals(worldId)) {
+            return cached;
         }
 
-        if (chunkThreshold <= 0) {
-            return false; // No limit
+        RegionTables tables = regions.computeIfAbsent(worldId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(regionKey, key -> new RegionTables(worldId, key));
+        cache[0] = tables;
+        return tables;
+    }
+
+    private static long currentTick() {
+        return ((System.nanoTime() - START_NANOS) / 1_000_000L / MILLIS_PER_TICK) & 0xFFFFFFFFL;
+    }
+
+    private static long elapsedTicks(long state, long now) {
+        return (now - (state >>> 32)) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Refill the bucket for the ticks elapsed since it was last touched, then take one token.
+     * A missing entry is a full bucket.
+     * @return true if a token was available
+     */
+    private boolean tryAcquire(@NotNull LongLongHashMap buckets, long key, int capacity, long now) {
+        long rate = Math.min(capacity, maxThreshold);
+        long max = rate * periodTicks;
+        long state = buckets.getOrDefault(key, ABSENT);
+        long tokens = max;
+        if (state != ABSENT) {
+            // A bucket idle for a whole period is full; capping first keeps the product in range
+            long refill = Math.min(elapsedTicks(state, now), periodTicks) * rate;
+            tokens = Math.min(max, (state & MAX_UNITS) + refill);
+        }
+
+        boolean acquired = tokens >= periodTicks;
+        if (acquired) {
+            tokens -= periodTicks;
+        }
+
+        buckets.put(key, (now << 32) | tokens);
+        return acquired;
+    }
+
+    private void addHeat(@NotNull LongLongHashMap heat, long chunkKey, long now) {
+        long state = heat.getOrDefault(chunkKey, ABSENT);
+        float value = state == ABSENT ? 1.0f : decayedHeat(state, now) + 1.0f;
+        heat.put(chunkKey, (now << 32) | (Float.floatToRawIntBits(value) & 0xFFFFFFFFL));
+    }
+
+    private float decayedHeat(long state, long now) {
+        long elapsed = elapsedTicks(state, now);
+        if (elapsed >= heatDecay.length) {
+            return 0.0f;
         }
 
-        ChunkKey key = new ChunkKey(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
-        AtomicInteger counter = chunkActivations.computeIfAbsent(key, k -> new AtomicInteger(0));
+        return Float.intBitsToFloat((int) state) * heatDecay[(int) elapsed];
+    }
+
+    /**
+     * Drop a few entries that have been idle for the given number of ticks (a bucket idle for a whole
+     * period is full again, which is the same as absent). Spreads expiry over normal traffic instead
+     * of clearing everything at once.
+     * @return Cursor to continue from on the next call
+     */
+    private int expireSome(@NotNull LongLongHashMap entries, int cursor, long now, long idleTicks) {
+        for (int i = 0; i < EXPIRE_SLOTS_PER_CHECK; i++) {
+            if (cursor >= entries.slots()) {
+                cursor = 0;
+            }
+
+            if (!entries.isFree(cursor) && elapsedTicks(entries.valueAt(cursor), now) >= idleTicks) {
+                entries.removeAt(cursor);
+            } else {
+                cursor++;
+            }
+        }
 
-        int prev = counter.getAndUpdate(v -> v < chunkThreshold ? v + 1 : v);
-        return prev >= chunkThreshold;
+        return cursor;
+    }
+
+    /**
+     * Runs every hotspots.check-interval-seconds on the global thread: schedules one maintenance task
+     * per region section on its owning thread, then publishes the merged hotspot ranking.
+     */
+    private void maintainRegions() {
+        if (!maintaining.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<CompletableFuture<List<Hotspot>>> futures = new ArrayList<>();
+        for (Map.Entry<UUID, Map<Long, RegionTables>> entry : regions.entrySet()) {
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world == null) {
+                regions.remove(entry.getKey());
+                continue;
+            }
+
+            for (RegionTables tables : entry.getValue().values()) {
+                CompletableFuture<List<Hotspot>> future = new CompletableFuture<>();
+                futures.add(future);
+                Location anchor = new Location(world, ChunkKeys.unpackX(tables.regionKey) << (regionShift + 4), 0,
+                        ChunkKeys.unpackZ(tables.regionKey) << (regionShift + 4));
+                scheduler.runAtLocation(anchor, task -> {
+                    try {
+                        future.complete(tables.retired ? List.of() : maintainRegion(world, entry.getValue(), tables));
+                    } catch (Throwable ex) {
+                        plugin.getLogger().warning("Redstone limiter maintenance failed in " + world.getName() + ": " + ex.getMessage());
+                        future.complete(List.of());
+                    }
+                });
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((v, error) -> {
+            if (hotspotsEnabled) {
+                List<Hotspot> ranking = new ArrayList<>();
+                for (CompletableFuture<List<Hotspot>> future : futures) {
+                    ranking.addAll(future.join());
+                }
+
+                ranking.sort(Comparator.comparingDouble(Hotspot::rate).reversed());
+                topHotspots = List.copyOf(ranking.subList(0, Math.min(topSize, ranking.size())));
+            }
+
+            maintaining.set(false);
+        });
+    }
+
+    /**
+     * Region-local maintenance on the owning thread: drop expired entries, step hot chunks one escalation
+     * level at a time, and retire the tables once they are empty.
+     * @return This region's hottest chunks, at most hotspots.top-size
+     */
+    private List<Hotspot> maintainRegion(@NotNull World world, @NotNull Map<Long, RegionTables> worldRegions,
+                                         @NotNull RegionTables tables) {
+        long now = currentTick();
+        expireAll(tables.blocks, now, periodTicks);
+        expireAll(tables.chunks, now, periodTicks);
+        expireAll(tables.heat, now, heatDecay.length);
+
+        List<Hotspot> top = List.of();
+        if (hotspotsEnabled) {
+            updateEscalations(world, tables, now);
+            top = rankRegion(world, tables, now);
+        }
+
+        if (tables.blocks.isEmpty() && tables.chunks.isEmpty() && tables.heat.isEmpty() && tables.escalations.isEmpty()) {
+            tables.retired = true;
+            worldRegions.remove(tables.regionKey, tables);
+        }
+
+        return top;
+    }
+
+    private void expireAll(@NotNull LongLongHashMap entries, long now, long idleTicks) {
+        int slot = 0;
+        while (slot < entries.slots()) {
+            if (!entries.isFree(slot) && elapsedTicks(entries.valueAt(slot), now) >= idleTicks) {
+                entries.removeAt(slot);
+            } else {
+                slot++;
+            }
+        }
+    }
+
+    private void updateEscalations(@NotNull World world, @NotNull RegionTables tables, long now) {
+        LongLongHashMap heat = tables.heat;
+        LongLongHashMap escalations = tables.escalations;
+
+        // New hot chunks start tracking with a fresh state
+        for (int slot = 0; slot < heat.slots(); slot++) {
+            if (!heat.isFree(slot) && decayedHeat(heat.valueAt(slot), now) * heatToRate >= hotRate
+                    && !escalations.containsKey(heat.keyAt(slot))) {
+                escalations.put(heat.keyAt(slot), 0L);
+            }
+        }
+
+        long[] tracked = new long[escalations.size()];
+        int count = 0;
+        for (int slot = 0; slot < escalations.slots(); slot++) {
+            if (!escalations.isFree(slot)) {
+                tracked[count++] = escalations.keyAt(slot);
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            long chunkKey = tracked[i];
+            long state = escalations.get(chunkKey);
+            int level = escalationLevel(state);
+            int streak = (int) (state >>> 8) & 0xFFFF;
+            int cool = (int) (state >>> 24) & 0xFFFF;
+            long heatState = heat.getOrDefault(chunkKey, ABSENT);
+            boolean hot = heatState != ABSENT && decayedHeat(heatState, now) * heatToRate >= hotRate;
+
+            int previous = level;
+            if (hot) {
+                cool = 0;
+                if (++streak >= escalateAfterChecks && level < LEVEL_FROZEN) {
+                    level++;
+                    streak = 0;
+                }
+            } else {
+                streak = 0;
+                if (++cool >= escalateAfterChecks && level > LEVEL_NORMAL) {
+                    level--;
+                    cool = 0;
+                }
+            }
+
+            if (level == LEVEL_NORMAL && streak == 0) {
+                escalations.remove(chunkKey);
+            } else {
+                escalations.put(chunkKey, level | ((long) Math.min(streak, 0xFFFF) << 8) | ((long) Math.min(cool, 0xFFFF) << 24));
+            }
+
+            if (level != previous) {
+                String change = switch (level) {
+                    case LEVEL_FROZEN -> "frozen";
+                    case LEVEL_HALVED -> "limited to half thresholds";
+                    default -> "back to normal thresholds";
+                };
+                plugin.getLogger().info("Redstone hotspot " + world.getName() + " [" + ChunkKeys.unpackX(chunkKey) + ", "
+                        + ChunkKeys.unpackZ(chunkKey) + "] " + change);
+            }
+        }
+    }
+
+    private List<Hotspot> rankRegion(@NotNull World world, @NotNull RegionTables tables, long now) {
+        PriorityQueue<Hotspot> top = new PriorityQueue<>(Comparator.comparingDouble(Hotspot::rate));
+        LongLongHashMap heat = tables.heat;
+        for (int slot = 0; slot < heat.slots(); slot++) {
+            if (heat.isFree(slot)) {
+                continue;
+            }
+
+            double rate = decayedHeat(heat.valueAt(slot), now) * heatToRate;
+            if (top.size() < topSize || rate > top.peek().rate()) {
+                long chunkKey = heat.keyAt(slot);
+                int level = escalationLevel(tables.escalations.get(chunkKey));
+                top.add(new Hotspot(world.getName(), ChunkKeys.unpackX(chunkKey), ChunkKeys.unpackZ(chunkKey), rate, level));
+                if (top.size() > topSize) {
+                    top.poll();
+                }
+            }
+        }
+
+        return new ArrayList<>(top);
+    }
+
+    // Escalation state is packed as (cool << 24 | streak << 8 | level)
+    private static int escalationLevel(long state) {
+        return (int) (state & 0xFF);
     }
 
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
@@ -176,13 +547,8 @@ public class RedstoneLimiterListener implements Listener {
         if (!isWorldAllowed(block.getWorld())) return;
         if (event.getNewCurrent() == event.getOldCurrent()) return;
 
-        Chunk chunk = block.getChunk();
-
         // Check both block-level and chunk-level limits
-        boolean blockExceeded = checkBlockLimit(block);
-        boolean chunkExceeded = checkChunkLimit(chunk);
-
-        if (blockExceeded || chunkExceeded) {
+        if (checkLimits(block)) {
             event.setNewCurrent(event.getOldCurrent());
         }
     }
@@ -194,8 +560,6 @@ public class RedstoneLimiterListener implements Listener {
         Block block = event.getBlock();
         if (!isWorldAllowed(block.getWorld())) return;
 
-        Chunk chunk = block.getChunk();
-
         // Check push limit
         if (maxPistonPush > 0 && event.getBlocks().size() > maxPistonPush) {
             event.setCancelled(true);
@@ -203,10 +567,7 @@ public class RedstoneLimiterListener implements Listener {
         }
 
         // Check redstone limits
-        boolean blockExceeded = checkBlockLimit(block);
-        boolean chunkExceeded = checkChunkLimit(chunk);
-
-        if (blockExceeded || chunkExceeded) {
+        if (checkLimits(block)) {
             event.setCancelled(true);
         }
     }
@@ -218,8 +579,6 @@ public class RedstoneLimiterListener implements Listener {
         Block block = event.getBlock();
         if (!isWorldAllowed(block.getWorld())) return;
 
-        Chunk chunk = block.getChunk();
-
         // Check push limit
         if (maxPistonPush > 0 && event.getBlocks().size() > maxPistonPush) {
             event.setCancelled(true);
@@ -227,10 +586,7 @@ public class RedstoneLimiterListener implements Listener {
         }
 
         // Check redstone limits
-        boolean blockExceeded = checkBlockLimit(block);
-        boolean chunkExceeded = checkChunkLimit(chunk);
-
-        if (blockExceeded || chunkExceeded) {
+        if (checkLimits(block)) {
             event.setCancelled(true);
         }
     }
@@ -242,52 +598,41 @@ public class RedstoneLimiterListener implements Listener {
         Block block = event.getBlock();
         if (!isWorldAllowed(block.getWorld())) return;
 
-        Chunk chunk = block.getChunk();
-
-        boolean blockExceeded = checkBlockLimit(block);
-        boolean chunkExceeded = checkChunkLimit(chunk);
-
-        if (blockExceeded || chunkExceeded) {
+        if (checkLimits(block)) {
             event.setCancelled(true);
         }
     }
 
-    // Block tracking key (unique per block location)
-    private record BlockKey(@NotNull String world, int x, int y, int z) {
-        BlockKey(@NotNull Location loc) {
-            this(loc.getWorld().getName(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof BlockKey k)) return false;
-            return x == k.x && y == k.y && z == k.z && world.equals(k.world);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(world, x, y, z);
-        }
+    /**
+     * A chunk in the hotspot ranking
+     * @param world World name
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @param rate Decayed activation rate in activations per second
+     * @param level Escalation level (0 normal, 1 halved thresholds, 2 frozen)
+     */
+    public record Hotspot(@NotNull String world, int chunkX, int chunkZ, double rate, int level) {
     }
 
-    // Chunk tracking key
-    private record ChunkKey(@NotNull String world, int x, int z) {
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof ChunkKey k)) return false;
-            return x == k.x && z == k.z && world.equals(k.world);
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(world, x, z);
+    /**
+     * Counters of one region section. Only the thread owning the section reads or writes them.
+     */
+    private static final class RegionTables {
+        private final UUID worldId;
+        private final long regionKey;
+        private final LongLongHashMap blocks = new LongLongHashMap();
+        private final LongLongHashMap chunks = new LongLongHashMap();
+        private final LongLongHashMap heat = new LongLongHashMap();
+        private final LongLongHashMap escalations = new LongLongHashMap();
+        private int blockCursor;
+        private int chunkCursor;
+        private int heatCursor;
+        // Set once the section has been dropped from the map; cached references must not be reused
+        private boolean retired;
+
+        private RegionTables(@NotNull UUID worldId, long regionKey) {
+            this.worldId = worldId;
+            this.regionKey = regionKey;
         }
     }
-
-    // Block activation data
-    private static class BlockData {
-        final AtomicInteger count = new AtomicInteger(0);
-    }
 }
@@ -2,7 +2,8 @@ package com.clearlagenhanced.listeners;
 
 import com.clearlagenhanced.ClearLaggEnhanced;
 import com.clearlagenhanced.managers.ConfigManager;
-import org.bukkit.Chunk;
+import com.clearlagenhanced.managers.LagGovernor;
+import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.CreatureSpawner;
 import org.bukkit.event.EventHandler;
@@ -54,15 +55,20 @@ public class SpawnerLimiterListener implements Listener {
             return;
         }
 
-        Chunk chunk = event.getLocation().getChunk();
-        if (plugin.getLagPreventionManager().isMobLimitReached(chunk)) {
+        Location location = event.getLocation();
+        if (plugin.getLagPreventionManager().isMobLimitReached(location.getWorld(), location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
             event.setCancelled(true);
             return;
         }
 
+        LagGovernor.Level pressure = plugin.getLagGovernor().current();
+        if (pressure.vanilla()) {
+            return;
+        }
+
         try {
             int current = Math.max(1, spawner.getDelay());
-            int newDelay = (int) Math.min((long) (current * multiplier()), 32767L);
+            int newDelay = (int) Math.min((long) (current * multiplier() * pressure.spawnerDelay()), 32767L);
             spawner.setDelay(newDelay);
         } catch (Throwable ignored) {
         }
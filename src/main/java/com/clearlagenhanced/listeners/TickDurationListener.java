@@ -0,0 +1,22 @@
+package com.clearlagenhanced.listeners;
+
+import com.clearlagenhanced.managers.PerformanceManager;
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.jetbrains.annotations.NotNull;
+
+public class TickDurationListener implements Listener {
+
+    private final PerformanceManager performanceManager;
+
+    public TickDurationListener(@NotNull PerformanceManager performanceManager) {
+        this.performanceManager = performanceManager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(@NotNull ServerTickEndEvent event) {
+        performanceManager.recordTick(event.getTickDuration());
+    }
+}
@@ -0,0 +1,167 @@
+package com.clearlagenhanced.managers;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Composite cost of a chunk, built from the counters the plugin already maintains (entity census,
+ * tile entity index, chunk telemetry), so scoring a chunk never touches the chunk itself.
+ * Weights come from chunk-finder.weights.
+ */
+public class ChunkCostEngine {
+
+    private final EntityCensus census;
+    private final TileEntityIndex tileIndex;
+    private final ChunkTelemetry telemetry;
+
+    private final double entityWeight;
+    private final double livingWeight;
+    private final double tileEntityWeight;
+    private final double hopperWeight;
+    private final double spawnerWeight;
+    private final double redstoneRateWeight;
+    private final double hopperRateWeight;
+    // Living entity types weighted differently from the living default, as (type, extra weight) pairs
+    private final EntityType[] weightedTypes;
+    private final double[] extraTypeWeights;
+
+    public ChunkCostEngine(@NotNull ClearLaggEnhanced plugin) {
+        ConfigManager config = plugin.getConfigManager();
+        this.census = plugin.getEntityCensus();
+        this.tileIndex = plugin.getTileEntityIndex();
+        this.telemetry = plugin.getChunkTelemetry();
+
+        this.entityWeight = config.getDouble("chunk-finder.weights.entity", 1.0);
+        this.livingWeight = config.getDouble("chunk-finder.weights.living-entity", 1.5);
+        this.tileEntityWeight = config.getDouble("chunk-finder.weights.tile-entity", 0.5);
+        this.hopperWeight = config.getDouble("chunk-finder.weights.hopper", 2.0);
+        this.spawnerWeight = config.getDouble("chunk-finder.weights.spawner", 5.0);
+        this.redstoneRateWeight = config.getDouble("chunk-finder.weights.redstone-per-second", 0.1);
+        this.hopperRateWeight = config.getDouble("chunk-finder.weights.hopper-moves-per-second", 0.05);
+
+        List<EntityType> types = new ArrayList<>();
+        List<Double> extra = new ArrayList<>();
+        Map<String, Object> typeWeights = config.getConfigSection("chunk-finder.weights.entity-types");
+        if (typeWeights != null) {
+            for (Map.Entry<String, Object> entry : typeWeights.entrySet()) {
+                try {
+                    EntityType type = EntityType.valueOf(entry.getKey().toUpperCase(Locale.ROOT));
+                    // Per-type counts are only kept for living entities, players excluded
+                    if (!type.isAlive() || type == EntityType.PLAYER) {
+                        plugin.getLogger().warning("Entity type in chunk-finder weights is not a living mob: " + entry.getKey());
+                        continue;
+                    }
+
+                    double weight = Double.parseDouble(entry.getValue().toString());
+                    types.add(type);
+                    extra.add(weight - livingWeight);
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid entity type in chunk-finder weights: " + entry.getKey());
+                }
+            }
+        }
+
+        this.weightedTypes = types.toArray(new EntityType[0]);
+        this.extraTypeWeights = extra.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    /**
+     * Score a chunk from the live counters. Safe to call from any thread; values from other
+     * regions may be slightly stale.
+     * @param world World of the chunk
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @return Cost breakdown and total score
+     */
+    @NotNull
+    public ChunkCost cost(@NotNull World world, int chunkX, int chunkZ) {
+        int entities = census.getChunkEntityCount(world, chunkX, chunkZ);
+        int living = census.getChunkLivingCount(world, chunkX, chunkZ);
+        int tileEntities = tileIndex.countAll(world, chunkX, chunkZ);
+        int hoppers = tileIndex.count(world, chunkX, chunkZ, Material.HOPPER);
+        int spawners = tileIndex.count(world, chunkX, chunkZ, Material.SPAWNER);
+        double redstoneRate = telemetry.getRedstoneRate(world, chunkX, chunkZ);
+        double hopperRate = telemetry.getHopperRate(world, chunkX, chunkZ);
+
+        // Tile entities already scored as hoppers or spawners only count once
+        double score = (entities - living) * entityWeight
+                + living * livingWeight
+                + Math.max(0, tileEntities - hoppers - spawners) * tileEntityWeight
+                + hoppers * hopperWeight
+                + spawners * spawnerWeight
+                + redstoneRate * redstoneRateWeight
+                + hopperRate * hopperRateWeight;
+        if (living > 0) {
+            for (int i = 0; i < weightedTypes.length; i++) {
+                score += census.getChunkLivingCount(world, chunkX, chunkZ, weightedTypes[i]) * extraTypeWeights[i];
+            }
+        }
+
+        return new ChunkCost(world.getName(), chunkX, chunkZ, entities, living, tileEntities, hoppers, spawners,
+                redstoneRate, hopperRate, Math.max(0.0, score));
+    }
+
+    /**
+     * Cost of one chunk
+     * @param world World name
+     * @param x Chunk X coordinate
+     * @param z Chunk Z coordinate
+     * @param entities All entities
+     * @param living Living entities, excluding players
+     * @param tileEntities Indexed tile entities (see performance.tile-index.types)
+     * @param hoppers Hoppers
+     * @param spawners Spawners
+     * @param redstoneRate Redstone activations per second
+     * @param hopperRate Hopper move attempts per second
+     * @param score Weighted total
+     */
+    public record ChunkCost(@NotNull String world, int x, int z, int entities, int living, int tileEntities, int hoppers,
+                            int spawners, double redstoneRate, double hopperRate, double score) {
+    }
+
+    /**
+     * Components a chunk ranking can be sorted by, highest first
+     */
+    public enum Component {
+        SCORE(Comparator.comparingDouble(ChunkCost::score)),
+        ENTITIES(Comparator.comparingInt(ChunkCost::entities)),
+        LIVING(Comparator.comparingInt(ChunkCost::living)),
+        TILES(Comparator.comparingInt(ChunkCost::tileEntities)),
+        HOPPERS(Comparator.comparingInt(ChunkCost::hoppers)),
+        SPAWNERS(Comparator.comparingInt(ChunkCost::spawners)),
+        REDSTONE(Comparator.comparingDouble(ChunkCost::redstoneRate)),
+        TRANSFERS(Comparator.comparingDouble(ChunkCost::hopperRate));
+
+        private final Comparator<ChunkCost> descending;
+
+        Component(@NotNull Comparator<ChunkCost> ascending) {
+            this.descending = ascending.reversed().thenComparing(Comparator.comparingDouble(ChunkCost::score).reversed());
+        }
+
+        @NotNull
+        public Comparator<ChunkCost> comparator() {
+            return descending;
+        }
+
+        @Nullable
+        public static Component fromString(@NotNull String name) {
+            for (Component component : values()) {
+                if (component.name().equalsIgnoreCase(name)) {
+                    return component;
+                }
+            }
+
+            return null;
+        }
+    }
+}
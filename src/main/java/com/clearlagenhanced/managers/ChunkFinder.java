@@ -0,0 +1,305 @@
+package com.clearlagenhanced.managers;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.utils.MessageUtils;
+import com.tcoded.folialib.impl.PlatformScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs /lagg chunkfinder scans. A scan is one task per region section overlapping the radius,
+ * each scoring its loaded chunks from the live counters without copying entity lists. Only one
+ * scan runs per world at a time; further requests queue behind it. A scan can be cancelled
+ * while running or queued.
+ */
+public class ChunkFinder {
+
+    private static final int MAX_RESULTS = 10;
+
+    private final ClearLaggEnhanced plugin;
+    private final PlatformScheduler scheduler;
+    private final int regionShift;
+    private final int radius;
+    private final int entityThreshold;
+    private final double scoreThreshold;
+    private final long timeoutTicks;
+    private final Map<UUID, Deque<ScanJob>> queues = new ConcurrentHashMap<>();
+
+    public ChunkFinder(@NotNull ClearLaggEnhanced plugin) {
+        ConfigManager config = plugin.getConfigManager();
+        this.plugin = plugin;
+        this.scheduler = ClearLaggEnhanced.scheduler();
+        this.regionShift = Math.max(0, Math.min(10, config.getInt("threading.region-chunk-shift", 4)));
+        int maxRadius = Math.max(1, config.getInt("chunk-finder.max-radius", 32));
+        this.radius = Math.max(1, Math.min(maxRadius, config.getInt("chunk-finder.radius", 10)));
+        this.entityThreshold = config.getInt("chunk-finder.entity-threshold", 50);
+        this.scoreThreshold = config.getDouble("chunk-finder.score-threshold", 50.0);
+        this.timeoutTicks = Math.max(1, config.getInt("chunk-finder.timeout-seconds", 30)) * 20L;
+    }
+
+    /**
+     * Queue a scan around a player, or start it right away if no scan runs in that world
+     * @param player Player to scan around and report to
+     * @param sortBy Cost component to rank by
+     */
+    public void scan(@NotNull Player player, @NotNull ChunkCostEngine.Component sortBy) {
+        World world = player.getWorld();
+        Location location = player.getLocation();
+        ScanJob job = new ScanJob(player, world, location.getBlockX() >> 4, location.getBlockZ() >> 4, sortBy);
+
+        Deque<ScanJob> queue = queues.computeIfAbsent(world.getUID(), uid -> new ArrayDeque<>());
+        int ahead;
+        synchronized (queue) {
+            for (ScanJob queued : queue) {
+                if (queued.player.getUniqueId().equals(player.getUniqueId())) {
+                    MessageUtils.sendMessage(player, "chunkfinder.already-running");
+                    return;
+                }
+            }
+
+            ahead = queue.size();
+            queue.addLast(job);
+        }
+
+        if (ahead > 0) {
+            Map<String, String> ph = new ConcurrentHashMap<>();
+            ph.put("position", String.valueOf(ahead));
+            MessageUtils.sendMessage(player, "chunkfinder.queued", ph);
+            return;
+        }
+
+        run(job);
+    }
+
+    /**
+     * Cancel the player's running or queued scan
+     * @param player Player who requested the scan
+     * @return true if a scan was cancelled
+     */
+    public boolean cancel(@NotNull Player player) {
+        for (Deque<ScanJob> queue : queues.values()) {
+            synchronized (queue) {
+                for (ScanJob job : queue) {
+                    if (job.player.getUniqueId().equals(player.getUniqueId())) {
+                        job.cancelled = true;
+                        if (queue.peekFirst() != job) {
+                            queue.remove(job);
+                        }
+
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private void run(@NotNull ScanJob job) {
+        MessageUtils.sendMessage(job.player, "chunkfinder.scanning");
+
+        int minX = job.centerX - radius;
+        int maxX = job.centerX + radius;
+        int minZ = job.centerZ - radius;
+        int maxZ = job.centerZ + radius;
+        // Bounds of every section with at least one loaded chunk, and that chunk as the task anchor.
+        // Anchoring at an unloaded chunk would load it on Folia; empty sections get no task at all.
+        List<int[]> sections = new ArrayList<>();
+        for (int rx = minX >> regionShift; rx <= maxX >> regionShift; rx++) {
+            for (int rz = minZ >> regionShift; rz <= maxZ >> regionShift; rz++) {
+                int fromX = Math.max(minX, rx << regionShift);
+                int toX = Math.min(maxX, ((rx + 1) << regionShift) - 1);
+                int fromZ = Math.max(minZ, rz << regionShift);
+                int toZ = Math.min(maxZ, ((rz + 1) << regionShift) - 1);
+                int[] loaded = firstLoaded(job.world, fromX, toX, fromZ, toZ);
+                if (loaded != null) {
+                    sections.add(new int[]{fromX, toX, fromZ, toZ, loaded[0], loaded[1]});
+                }
+            }
+        }
+
+        if (sections.isEmpty()) {
+            finish(job);
+            return;
+        }
+
+        job.pending.set(sections.size());
+        // A section task that never runs (its region gone, the world unloaded) must not stall the queue
+        scheduler.runLater(() -> {
+            if (!job.finished.get()) {
+                job.timedOut = true;
+                finish(job);
+            }
+        }, timeoutTicks);
+
+        ChunkCostEngine costEngine = plugin.getChunkCostEngine();
+        for (int[] section : sections) {
+            int fromX = section[0];
+            int toX = section[1];
+            int fromZ = section[2];
+            int toZ = section[3];
+            Location anchor = new Location(job.world, section[4] << 4, 0, section[5] << 4);
+            scheduler.runAtLocation(anchor, task -> {
+                try {
+                    for (int x = fromX; x <= toX && !job.cancelled; x++) {
+                        for (int z = fromZ; z <= toZ; z++) {
+                            if (!job.world.isChunkLoaded(x, z)) {
+                                continue;
+                            }
+
+                            // Scored from the live counters; the chunk itself is not touched
+                            ChunkCostEngine.ChunkCost cost = costEngine.cost(job.world, x, z);
+                            if (cost.entities() >= entityThreshold || cost.score() >= scoreThreshold) {
+                                job.results.add(new Result(cost, Math.max(Math.abs(x - job.centerX), Math.abs(z - job.centerZ))));
+                            }
+                        }
+                    }
+                } finally {
+                    if (job.pending.decrementAndGet() == 0) {
+                        scheduler.runNextTick(next -> finish(job));
+                    }
+                }
+            });
+        }
+    }
+
+    private static int[] firstLoaded(@NotNull World world, int fromX, int toX, int fromZ, int toZ) {
+        for (int x = fromX; x <= toX; x++) {
+            for (int z = fromZ; z <= toZ; z++) {
+                if (world.isChunkLoaded(x, z)) {
+                    return new int[]{x, z};
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private void finish(@NotNull ScanJob job) {
+        // Reached once by the last section task and possibly again by the timeout
+        if (!job.finished.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (job.cancelled) {
+            MessageUtils.sendMessage(job.player, "chunkfinder.cancelled");
+        } else if (job.timedOut) {
+            MessageUtils.sendMessage(job.player, "chunkfinder.timed-out");
+            report(job);
+        } else {
+            report(job);
+        }
+
+        Deque<ScanJob> queue = queues.get(job.world.getUID());
+        if (queue == null) {
+            return;
+        }
+
+        if (Bukkit.getWorld(job.world.getUID()) == null) {
+            // World unloaded: everything queued behind this scan is dropped
+            queues.remove(job.world.getUID(), queue);
+            return;
+        }
+
+        ScanJob next;
+        synchronized (queue) {
+            queue.remove(job);
+            next = queue.peekFirst();
+        }
+
+        if (next != null) {
+            if (!next.player.isOnline()) {
+                next.cancelled = true;
+            }
+
+            if (next.cancelled) {
+                finish(next);
+            } else {
+                run(next);
+            }
+        }
+    }
+
+    private void report(@NotNull ScanJob job) {
+        List<Result> results = new ArrayList<>(job.results);
+        if (results.isEmpty()) {
+            Map<String, String> ph = new ConcurrentHashMap<>();
+            ph.put("radius", String.valueOf(radius));
+            MessageUtils.sendMessage(job.player, "chunkfinder.none-found", ph);
+            return;
+        }
+
+        results.sort((a, b) -> job.sortBy.comparator().compare(a.cost, b.cost));
+        MessageUtils.sendMessage(job.player, "chunkfinder.header");
+        for (int i = 0; i < Math.min(results.size(), MAX_RESULTS); i++) {
+            Result result = results.get(i);
+            Map<String, String> ph = placeholders(result.cost);
+            ph.put("distance", String.valueOf(result.distance));
+            MessageUtils.sendMessage(job.player, "chunkfinder.entry", ph);
+        }
+
+        if (results.size() > MAX_RESULTS) {
+            Map<String, String> ph = new ConcurrentHashMap<>();
+            ph.put("more", String.valueOf(results.size() - MAX_RESULTS));
+            MessageUtils.sendMessage(job.player, "chunkfinder.more", ph);
+        }
+    }
+
+    /**
+     * Placeholders shared by every chunk finder entry
+     * @param cost Chunk cost to describe
+     * @return Mutable placeholder map
+     */
+    @NotNull
+    public static Map<String, String> placeholders(@NotNull ChunkCostEngine.ChunkCost cost) {
+        Map<String, String> ph = new ConcurrentHashMap<>();
+        ph.put("world", cost.world());
+        ph.put("x", String.valueOf(cost.x()));
+        ph.put("z", String.valueOf(cost.z()));
+        ph.put("count", String.valueOf(cost.entities()));
+        ph.put("score", String.format("%.1f", cost.score()));
+        ph.put("hoppers", String.valueOf(cost.hoppers()));
+        ph.put("spawners", String.valueOf(cost.spawners()));
+        ph.put("redstone", String.format("%.1f", cost.redstoneRate()));
+        return ph;
+    }
+
+    private record Result(@NotNull ChunkCostEngine.ChunkCost cost, int distance) {
+    }
+
+    private static final class ScanJob {
+        private final Player player;
+        private final World world;
+        private final int centerX;
+        private final int centerZ;
+        private final ChunkCostEngine.Component sortBy;
+        private final List<Result> results = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile boolean timedOut;
+
+        private ScanJob(@NotNull Player player, @NotNull World world, int centerX, int centerZ,
+                        @NotNull ChunkCostEngine.Component sortBy) {
+            this.player = player;
+            this.world = world;
+            this.centerX = centerX;
+            this.centerZ = centerZ;
+            this.sortBy = sortBy;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.clearlagenhanced.managers;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.utils.ChunkKeys;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-chunk activity rates written by the limiters: redstone activations and hopper move
+ * attempts per second, as exponentially decaying counters. Stored struct-of-arrays in fixed
+ * 16x16 chunk shards so a record or a query is a couple of array accesses. Hopper counts come
+ * from the {@link TileEntityIndex}, which already keeps them per chunk.
+ */
+public class ChunkTelemetry {
+
+    private static final int SHARD_SHIFT = 4;
+    private static final int SHARD_MASK = (1 << SHARD_SHIFT) - 1;
+    private static final int SHARD_SIZE = 1 << (SHARD_SHIFT * 2);
+    private static final long START_NANOS = System.nanoTime();
+    private static final long NANOS_PER_TICK = 50_000_000L;
+    private static final int HALF_LIVES_KEPT = 16;
+
+    private final TileEntityIndex tileIndex;
+    private final double heatToRate;
+    private final float[] decay;
+    private final Map<UUID, Map<Long, Shard>> worlds = new ConcurrentHashMap<>();
+    private final ThreadLocal<Shard[]> lastShard = ThreadLocal.withInitial(() -> new Shard[1]);
+
+    public ChunkTelemetry(@NotNull ClearLaggEnhanced plugin) {
+        ConfigManager config = plugin.getConfigManager();
+        this.tileIndex = plugin.getTileEntityIndex();
+        int halfLifeSeconds = Math.max(1, config.getInt("performance.telemetry.half-life-seconds", 10));
+        int halfLifeTicks = halfLifeSeconds * 20;
+        this.heatToRate = Math.log(2) / halfLifeSeconds;
+        this.decay = new float[halfLifeTicks * HALF_LIVES_KEPT];
+        for (int i = 0; i < decay.length; i++) {
+            decay[i] = (float) Math.pow(0.5, (double) i / halfLifeTicks);
+        }
+    }
+
+    public void shutdown() {
+        worlds.clear();
+    }
+
+    /**
+     * Count one redstone activation. Must be called from the thread owning the chunk.
+     */
+    public void recordRedstone(@NotNull World world, int chunkX, int chunkZ) {
+        Shard shard = shard(world, chunkX, chunkZ, true);
+        int slot = slot(chunkX, chunkZ);
+        int now = currentTick();
+        shard.redstoneHeat[slot] = decayed(shard.redstoneHeat[slot], shard.redstoneTick[slot], now) + 1.0f;
+        shard.redstoneTick[slot] = now;
+    }
+
+    /**
+     * Count one hopper move attempt. Must be called from the thread owning the chunk.
+     */
+    public void recordHopperMove(@NotNull World world, int chunkX, int chunkZ) {
+        Shard shard = shard(world, chunkX, chunkZ, true);
+        int slot = slot(chunkX, chunkZ);
+        int now = currentTick();
+        shard.hopperHeat[slot] = decayed(shard.hopperHeat[slot], shard.hopperTick[slot], now) + 1.0f;
+        shard.hopperTick[slot] = now;
+    }
+
+    /**
+     * @return Redstone activations per second in the chunk, decayed to now
+     */
+    public double getRedstoneRate(@NotNull World world, int chunkX, int chunkZ) {
+        Shard shard = shard(world, chunkX, chunkZ, false);
+        if (shard == null) {
+            return 0.0;
+        }
+
+        int slot = slot(chunkX, chunkZ);
+        return decayed(shard.redstoneHeat[slot], shard.redstoneTick[slot], currentTick()) * heatToRate;
+    }
+
+    /**
+     * @return Hopper move attempts per second in the chunk, decayed to now
+     */
+    public double getHopperRate(@NotNull World world, int chunkX, int chunkZ) {
+        Shard shard = shard(world, chunkX, chunkZ, false);
+        if (shard == null) {
+            return 0.0;
+        }
+
+        int slot = slot(chunkX, chunkZ);
+        return decayed(shard.hopperHeat[slot], shard.hopperTick[slot], currentTick()) * heatToRate;
+    }
+
+    public int getHopperCount(@NotNull World world, int chunkX, int chunkZ) {
+        return tileIndex.count(world, chunkX, chunkZ, Material.HOPPER);
+    }
+
+    public void chunkUnloaded(@NotNull World world, int chunkX, int chunkZ) {
+        Map<Long, Shard> shards = worlds.get(world.getUID());
+        if (shards == null) {
+            return;
+        }
+
+        long key = ChunkKeys.region(chunkX, chunkZ, SHARD_SHIFT);
+        Shard shard = shards.get(key);
+        if (shard == null) {
+            return;
+        }
+
+        int slot = slot(chunkX, chunkZ);
+        shard.redstoneHeat[slot] = 0.0f;
+        shard.hopperHeat[slot] = 0.0f;
+        if (isIdle(shard, currentTick())) {
+            shard.retired = true;
+            shards.remove(key, shard);
+        }
+    }
+
+    public void worldUnloaded(@NotNull World world) {
+        Map<Long, Shard> shards = worlds.remove(world.getUID());
+        if (shards != null) {
+            for (Shard shard : shards.values()) {
+                shard.retired = true;
+            }
+        }
+    }
+
+    private Shard shard(@NotNull World world, int chunkX, int chunkZ, boolean create) {
+        UUID worldId = world.getUID();
+        long key = ChunkKeys.region(chunkX, chunkZ, SHARD_SHIFT);
+        Shard[] cache = lastShard.get();
+        Shard cached = cache[0];
+        if (cached != null && !cached.retired && cached.key == key && cached.worldId.equals(worldId)) {
+            return cached;
+        }
+
+        Map<Long, Shard> shards = create ? worlds.computeIfAbsent(worldId, id -> new ConcurrentHashMap<>()) : worlds.get(worldId);
+        if (shards == null) {
+            return null;
+        }
+
+        Shard shard = create ? shards.computeIfAbsent(key, k -> new Shard(worldId, k)) : shards.get(key);
+        if (shard != null) {
+            cache[0] = shard;
+        }
+
+        return shard;
+    }
+
+    private static int slot(int chunkX, int chunkZ) {
+        return ((chunkX & SHARD_MASK) << SHARD_SHIFT) | (chunkZ & SHARD_MASK);
+    }
+
+    private static int currentTick() {
+        return (int) ((System.nanoTime() - START_NANOS) / NANOS_PER_TICK);
+    }
+
+    private float decayed(float heat, int since, int now) {
+        int elapsed = now - since;
+        if (heat == 0.0f || elapsed >= decay.length) {
+            return 0.0f;
+        }
+
+        return heat * decay[Math.max(0, elapsed)];
+    }
+
+    private boolean isIdle(@NotNull Shard shard, int now) {
+        for (int i = 0; i < SHARD_SIZE; i++) {
+            if (decayed(shard.redstoneHeat[i], shard.redstoneTick[i], now) != 0.0f
+                    || decayed(shard.hopperHeat[i], shard.hopperTick[i], now) != 0.0f) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Telemetry columns of 16x16 chunks. Each slot is written only from the thread owning its chunk;
+     * other threads may read slightly stale values.
+     */
+    private static final class Shard {
+        private final UUID worldId;
+        private final long key;
+        private final float[] redstoneHeat = new float[SHARD_SIZE];
+        private final int[] redstoneTick = new int[SHARD_SIZE];
+        private final float[] hopperHeat = new float[SHARD_SIZE];
+        private final int[] hopperTick = new int[SHARD_SIZE];
+        private volatile boolean retired;
+
+        private Shard(@NotNull UUID worldId, long key) {
+            this.worldId = worldId;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.clearlagenhanced.managers;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Tameable;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Immutable, precompiled rules deciding which entities an entity clear may remove.
+ * Built once on load/reload so the clear path does no config lookups or string comparisons.
+ */
+public final class ClearPolicy {
+
+    private final Set<EntityType> protectedTypes;
+    private final boolean protectNamed;
+    private final boolean protectTamed;
+    private final boolean protectLeashed;
+    private final boolean protectMounted;
+    private final boolean protectPersistent;
+    private final int minAgeTicks;
+    private final Predicate<Entity>[] protections;
+
+    @SuppressWarnings("unchecked")
+    private ClearPolicy(@NotNull Set<EntityType> protectedTypes, boolean protectNamed, boolean protectTamed,
+                        boolean protectLeashed, boolean protectMounted, boolean protectPersistent,
+                        int minAgeTicks, @NotNull Collection<Predicate<Entity>> protections) {
+        this.protectedTypes = protectedTypes;
+        this.protectNamed = protectNamed;
+        this.protectTamed = protectTamed;
+        this.protectLeashed = protectLeashed;
+        this.protectMounted = protectMounted;
+        this.protectPersistent = protectPersistent;
+        this.minAgeTicks = minAgeTicks;
+        this.protections = protections.toArray(new Predicate[0]);
+    }
+
+    /**
+     * Compile the clear policy from the entity-clearing section of the config
+     * @param config Config manager to read from
+     * @param protections Extra protections registered through the API; an entity matching any of them is kept
+     * @param logger Logger used to report invalid whitelist entries
+     * @return Compiled policy
+     */
+    public static ClearPolicy fromConfig(@NotNull ConfigManager config, @NotNull Collection<Predicate<Entity>> protections,
+                                         @NotNull Logger logger) {
+        Set<EntityType> protectedTypes = EnumSet.of(EntityType.PLAYER);
+        List<String> whitelist = config.getStringList("entity-clearing.whitelist");
+        for (String name : whitelist) {
+            try {
+                protectedTypes.add(EntityType.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                logger.warning("Invalid entity type in entity-clearing whitelist: " + name);
+            }
+        }
+
+        return new ClearPolicy(
+                protectedTypes,
+                config.getBoolean("entity-clearing.protect-named-entities", true),
+                config.getBoolean("entity-clearing.protect-tamed-entities", true),
+                config.getBoolean("entity-clearing.protect-leashed-entities", false),
+                config.getBoolean("entity-clearing.protect-mounted-entities", false),
+                config.getBoolean("entity-clearing.protect-persistent-entities", false),
+                Math.max(0, config.getInt("entity-clearing.min-age-ticks", 0)),
+                protections
+        );
+    }
+
+    /**
+     * Decide whether the entity may be removed by a clear. Cheap checks run first;
+     * must be called from the thread owning the entity.
+     * @param entity Entity to test
+     * @return true if the entity should be cleared
+     */
+    public boolean shouldClear(@NotNull Entity entity) {
+        if (protectedTypes.contains(entity.getType())) {
+            return false;
+        }
+
+        if (minAgeTicks > 0 && entity.getTicksLived() < minAgeTicks) {
+            return false;
+        }
+
+        if (protectNamed && entity.getCustomName() != null) {
+            return false;
+        }
+
+        if (protectTamed && entity instanceof Tameable tameable && tameable.isTamed()) {
+            return false;
+        }
+
+        if (protectMounted && (entity.isInsideVehicle() || !entity.isEmpty())) {
+            return false;
+        }
+
+        if (entity instanceof LivingEntity living) {
+            if (protectLeashed && living.isLeashed()) {
+                return false;
+            }
+
+            if (protectPersistent && !living.getRemoveWhenFarAway()) {
+                return false;
+            }
+        }
+
+        for (Predicate<Entity> protection : protections) {
+            if (protection.test(entity)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public boolean isProtectedType(@NotNull EntityType type) {
+        return protectedTypes.contains(type);
+    }
+}
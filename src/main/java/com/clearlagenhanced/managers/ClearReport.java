@@ -0,0 +1,42 @@
+package com.clearlagenhanced.managers;
+
+import org.bukkit.entity.EntityType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a single entity clear
+ * @param cleared Total number of entities removed
+ * @param clearedByType Removed entities per type (only types with at least one removal)
+ * @param clearedByWorld Removed entities per world name (every swept world, including zero counts)
+ * @param durationMs Wall-clock duration from snapshot to the last region finishing
+ * @param regionsTouched Number of region sections that were swept
+ * @param regionTimings Per-region timings in completion order
+ */
+public record ClearReport(int cleared,
+                          @NotNull Map<EntityType, Integer> clearedByType,
+                          @NotNull Map<String, Integer> clearedByWorld,
+                          long durationMs,
+                          int regionsTouched,
+                          @NotNull List<RegionTiming> regionTimings) {
+
+    /**
+     * Slowest region of this clear
+     * @return The region that took the longest, or null if no region was swept
+     */
+    public RegionTiming slowestRegion() {
+        RegionTiming slowest = null;
+        for (RegionTiming timing : regionTimings) {
+            if (slowest == null || timing.nanos() > slowest.nanos()) {
+                slowest = timing;
+            }
+        }
+
+        return slowest;
+    }
+
+    public record RegionTiming(@NotNull String world, int regionX, int regionZ, int chunks, int removed, long nanos) {
+    }
+}
@@ -12,7 +12,7 @@ import java.util.List;
 
 public class ConfigManager {
 
-    private static final int CURRENT_CONFIG_VERSION = 3;
+    private static final int CURRENT_CONFIG_VERSION = 4;
 
     private final ClearLaggEnhanced plugin;
     @Getter private FileConfiguration config;
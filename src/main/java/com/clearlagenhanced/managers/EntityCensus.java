@@ -0,0 +1,473 @@
+package com.clearlagenhanced.managers;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.utils.ChunkKeys;
+import com.clearlagenhanced.utils.RegionShardMap;
+import com.tcoded.folialib.impl.PlatformScheduler;
+import com.tcoded.folialib.wrapper.task.WrappedTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Entity counts per world, per type and per chunk, kept up to date from entity add/remove
+ * events so queries never scan the world. World and type totals are exact. Each entity is
+ * remembered in the chunk it was counted in and uncounted from that same chunk, so chunk
+ * counts never drift, but an entity that walks away stays counted where it was until that
+ * chunk or the one it moved to is recounted. Recounts happen in a periodic reconciliation
+ * pass over every loaded chunk, and on demand when a limiter finds a chunk at its cap.
+ */
+public class EntityCensus {
+
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+    private static final long VERIFY_INTERVAL_NANOS = 1_000_000_000L;
+    private static final boolean[] COUNTED_LIVING = new boolean[ENTITY_TYPES.length];
+
+    static {
+        for (EntityType type : ENTITY_TYPES) {
+            Class<?> entityClass = type.getEntityClass();
+            COUNTED_LIVING[type.ordinal()] = type != EntityType.PLAYER && entityClass != null
+                    && LivingEntity.class.isAssignableFrom(entityClass);
+        }
+    }
+
+    private final ClearLaggEnhanced plugin;
+    private final PlatformScheduler scheduler;
+    private final int regionShift;
+    private final long reconcileIntervalTicks;
+    private final Map<UUID, WorldCensus> worlds = new ConcurrentHashMap<>();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+
+    private WrappedTask reconcileTask;
+
+    public EntityCensus(@NotNull ClearLaggEnhanced plugin) {
+        ConfigManager config = plugin.getConfigManager();
+        this.plugin = plugin;
+        this.scheduler = ClearLaggEnhanced.scheduler();
+        this.regionShift = Math.max(0, Math.min(10, config.getInt("threading.region-chunk-shift", 4)));
+        this.reconcileIntervalTicks = Math.max(10, config.getInt("performance.census.reconcile-interval-seconds", 60)) * 20L;
+    }
+
+    /**
+     * Start the reconciliation timer. The first pass runs on the next tick and seeds the counts
+     * for entities that were already loaded before the plugin was enabled.
+     */
+    public void start() {
+        if (reconcileTask != null) {
+            return;
+        }
+
+        reconcileTask = scheduler.runTimer(this::reconcile, 1L, reconcileIntervalTicks);
+    }
+
+    public void shutdown() {
+        if (reconcileTask != null) {
+            scheduler.cancelTask(reconcileTask);
+            reconcileTask = null;
+        }
+    }
+
+    /**
+     * Count an entity that was added to its world. Must be called from the thread owning the entity.
+     * @param entity Added entity
+     */
+    public void entityAdded(@NotNull Entity entity) {
+        WorldCensus census = world(entity.getWorld());
+        int ordinal = entity.getType().ordinal();
+        Location location = entity.getLocation();
+        int chunkX = location.getBlockX() >> 4;
+        int chunkZ = location.getBlockZ() >> 4;
+        census.add(ordinal, 1, ChunkKeys.region(chunkX, chunkZ, regionShift));
+
+        ChunkCounts counts = census.chunks.computeIfAbsent(chunkX, chunkZ, ChunkCounts::new);
+        census.countedIn.put(entity.getEntityId(), new Counted(counts, counts.add(ordinal)));
+    }
+
+    /**
+     * Uncount an entity that was removed from its world. Must be called from the thread owning the entity.
+     * @param entity Removed entity
+     */
+    public void entityRemoved(@NotNull Entity entity) {
+        WorldCensus census = worlds.get(entity.getWorld().getUID());
+        if (census == null) {
+            return;
+        }
+
+        int ordinal = entity.getType().ordinal();
+        Location location = entity.getLocation();
+        census.add(ordinal, -1, ChunkKeys.region(location.getBlockX() >> 4, location.getBlockZ() >> 4, regionShift));
+
+        // Uncount from the chunk the entity was counted in, wherever it is now
+        Counted counted = census.countedIn.remove(entity.getEntityId());
+        if (counted != null) {
+            counted.counts.remove(ordinal, counted.epoch);
+        }
+    }
+
+    public void chunkUnloaded(@NotNull World world, int chunkX, int chunkZ) {
+        WorldCensus census = worlds.get(world.getUID());
+        if (census != null) {
+            census.chunks.remove(chunkX, chunkZ);
+        }
+    }
+
+    public void worldUnloaded(@NotNull World world) {
+        worlds.remove(world.getUID());
+    }
+
+    public int getTotalEntities() {
+        int total = 0;
+        for (WorldCensus census : worlds.values()) {
+            total += Math.max(0, census.total);
+        }
+
+        return total;
+    }
+
+    public int getEntityCount(@NotNull World world) {
+        WorldCensus census = worlds.get(world.getUID());
+        return census == null ? 0 : Math.max(0, census.total);
+    }
+
+    public int getEntityCount(@NotNull World world, @NotNull EntityType type) {
+        WorldCensus census = worlds.get(world.getUID());
+        return census == null ? 0 : Math.max(0, census.count(type.ordinal()));
+    }
+
+    /**
+     * Entities counted in a chunk
+     * @param world World of the chunk
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @return Entity count, or 0 if the chunk is not loaded
+     */
+    public int getChunkEntityCount(@NotNull World world, int chunkX, int chunkZ) {
+        WorldCensus census = worlds.get(world.getUID());
+        if (census == null) {
+            return 0;
+        }
+
+        ChunkCounts counts = census.chunks.get(chunkX, chunkZ);
+        return counts == null ? 0 : counts.total;
+    }
+
+    /**
+     * Living entities (excluding players) counted in a chunk, as used by the mob limiter
+     * @param world World of the chunk
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @return Living entity count, or 0 if the chunk is not loaded
+     */
+    public int getChunkLivingCount(@NotNull World world, int chunkX, int chunkZ) {
+        WorldCensus census = worlds.get(world.getUID());
+        if (census == null) {
+            return 0;
+        }
+
+        ChunkCounts counts = census.chunks.get(chunkX, chunkZ);
+        return counts == null ? 0 : counts.living;
+    }
+
+    /**
+     * Living entities of one type counted in a chunk
+     * @param world World of the chunk
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @param type Entity type; non-living types and players always return 0
+     * @return Count of that type, or 0 if the chunk is not loaded
+     */
+    public int getChunkLivingCount(@NotNull World world, int chunkX, int chunkZ, @NotNull EntityType type) {
+        WorldCensus census = worlds.get(world.getUID());
+        if (census == null) {
+            return 0;
+        }
+
+        ChunkCounts counts = census.chunks.get(chunkX, chunkZ);
+        if (counts == null) {
+            return 0;
+        }
+
+        int[] byType = counts.livingByType;
+        return byType == null ? 0 : byType[type.ordinal()];
+    }
+
+    /**
+     * Whether a chunk holds at least the given number of living entities. When the tracked count
+     * reaches the cap, the chunk is recounted first (at most once a second), so entities that were
+     * counted there but have since walked away do not block spawns. Must be called from the thread
+     * owning the chunk.
+     * @param world World of the chunk
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @param type Entity type to count, or null for all living entities
+     * @param cap Count to compare against
+     * @return true if the chunk is at or above the cap
+     */
+    public boolean isChunkLivingAtLeast(@NotNull World world, int chunkX, int chunkZ, @Nullable EntityType type, int cap) {
+        if (livingCount(world, chunkX, chunkZ, type) < cap) {
+            return false;
+        }
+
+        WorldCensus census = worlds.get(world.getUID());
+        ChunkCounts counts = census == null ? null : census.chunks.get(chunkX, chunkZ);
+        long now = System.nanoTime();
+        if (counts == null || now - counts.verifiedAt < VERIFY_INTERVAL_NANOS || !world.isChunkLoaded(chunkX, chunkZ)) {
+            return true;
+        }
+
+        recountChunk(census, world.getChunkAt(chunkX, chunkZ), null);
+        counts.verifiedAt = now;
+        return livingCount(world, chunkX, chunkZ, type) >= cap;
+    }
+
+    private int livingCount(@NotNull World world, int chunkX, int chunkZ, @Nullable EntityType type) {
+        return type == null ? getChunkLivingCount(world, chunkX, chunkZ) : getChunkLivingCount(world, chunkX, chunkZ, type);
+    }
+
+    private WorldCensus world(@NotNull World world) {
+        return worlds.computeIfAbsent(world.getUID(), uid -> new WorldCensus());
+    }
+
+    /**
+     * Recount every loaded chunk, one task per region section, then reset the world totals
+     * from the fresh counts. Runs on the global tick thread; skipped while a pass is still running.
+     */
+    private void reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        Map<UUID, int[]> recounted = new ConcurrentHashMap<>();
+        for (World world : Bukkit.getWorlds()) {
+            final WorldCensus census = world(world);
+            final int[] worldCounts = new int[ENTITY_TYPES.length];
+            recounted.put(world.getUID(), worldCounts);
+
+            Map<Long, List<Chunk>> byRegion = new HashMap<>();
+            for (Chunk chunk : world.getLoadedChunks()) {
+                byRegion.computeIfAbsent(ChunkKeys.region(chunk.getX(), chunk.getZ(), regionShift), k -> new ArrayList<>()).add(chunk);
+            }
+
+            final Pass pass = new Pass(new HashSet<>(byRegion.keySet()));
+            census.begin(pass);
+            for (Map.Entry<Long, List<Chunk>> region : byRegion.entrySet()) {
+                final List<Chunk> chunks = region.getValue();
+                final long regionKey = region.getKey();
+                final CompletableFuture<Void> future = new CompletableFuture<>();
+                futures.add(future);
+                Chunk first = chunks.get(0);
+                scheduler.runAtLocation(new Location(world, first.getX() << 4, 0, first.getZ() << 4), task -> {
+                    try {
+                        int[] regionCounts = new int[ENTITY_TYPES.length];
+                        for (Chunk chunk : chunks) {
+                            if (chunk.isLoaded()) {
+                                recountChunk(census, chunk, regionCounts);
+                            }
+                        }
+
+                        census.recounted(pass, regionKey, regionCounts, worldCounts);
+                    } catch (Throwable ex) {
+                        pass.failed = true;
+                        plugin.getLogger().warning("Entity census failed to recount a region in " + world.getName() + ": " + ex.getMessage());
+                    } finally {
+                        future.complete(null);
+                    }
+                });
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((v, error) -> {
+            for (Map.Entry<UUID, int[]> entry : recounted.entrySet()) {
+                WorldCensus census = worlds.get(entry.getKey());
+                if (census != null) {
+                    census.finish(entry.getValue());
+                }
+            }
+
+            reconciling.set(false);
+        });
+    }
+
+    /**
+     * Reset a chunk's counts to the entities it holds now, and move each of them over from the
+     * chunk it was counted in before. Entities counted here that have left keep their old epoch,
+     * so their later removal no longer touches this chunk.
+     * @param regionCounts Per-type totals to add to, or null
+     */
+    private void recountChunk(@NotNull WorldCensus census, @NotNull Chunk chunk, int[] regionCounts) {
+        ChunkCounts counts = census.chunks.computeIfAbsent(chunk.getX(), chunk.getZ(), ChunkCounts::new);
+        int epoch = counts.reset();
+        for (Entity entity : chunk.getEntities()) {
+            int ordinal = entity.getType().ordinal();
+            if (regionCounts != null) {
+                regionCounts[ordinal]++;
+            }
+
+            counts.add(ordinal);
+            Counted previous = census.countedIn.put(entity.getEntityId(), new Counted(counts, epoch));
+            if (previous != null && previous.counts != counts) {
+                previous.counts.remove(ordinal, previous.epoch);
+            }
+        }
+    }
+
+    /**
+     * Totals of one world. Updates and the end of a reconciliation pass are serialized on the
+     * instance, so events racing with a pass are neither lost nor counted twice.
+     */
+    private static final class WorldCensus {
+        private final RegionShardMap<ChunkCounts> chunks = new RegionShardMap<>();
+        // Entity id -> chunk counts it is currently counted in
+        private final Map<Integer, Counted> countedIn = new ConcurrentHashMap<>();
+        private final int[] byType = new int[ENTITY_TYPES.length];
+        private volatile int total;
+        private Pass pass;
+
+        private synchronized void add(int ordinal, int delta, long regionKey) {
+            total += delta;
+            byType[ordinal] += delta;
+            if (pass != null && pass.missedBy(regionKey)) {
+                pass.delta[ordinal] += delta;
+            }
+        }
+
+        private synchronized int count(int ordinal) {
+            return byType[ordinal];
+        }
+
+        private synchronized void begin(@NotNull Pass next) {
+            pass = next;
+        }
+
+        /**
+         * A region has been recounted; from now on its events are not in the recount
+         */
+        private synchronized void recounted(@NotNull Pass current, long regionKey, int[] regionCounts, int[] worldCounts) {
+            current.recounted.add(regionKey);
+            for (int i = 0; i < regionCounts.length; i++) {
+                worldCounts[i] += regionCounts[i];
+            }
+        }
+
+        /**
+         * Replace the totals with the recount plus every event the recount did not see
+         */
+        private synchronized void finish(int[] counts) {
+            if (pass == null || pass.failed) {
+                // A region was not recounted; keep the live totals rather than lose its entities
+                pass = null;
+                return;
+            }
+
+            int sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                byType[i] = counts[i] + pass.delta[i];
+                sum += byType[i];
+            }
+
+            total = sum;
+            pass = null;
+        }
+    }
+
+    /**
+     * One reconciliation pass over a world. An event is covered by the recount only if it happened
+     * in a scheduled region before that region was recounted; every other event goes to delta.
+     */
+    private static final class Pass {
+        private final Set<Long> scheduled;
+        private final Set<Long> recounted = new HashSet<>();
+        private final int[] delta = new int[ENTITY_TYPES.length];
+        private volatile boolean failed;
+
+        private Pass(@NotNull Set<Long> scheduled) {
+            this.scheduled = scheduled;
+        }
+
+        private boolean missedBy(long regionKey) {
+            return !scheduled.contains(regionKey) || recounted.contains(regionKey);
+        }
+    }
+
+    private record Counted(@NotNull ChunkCounts counts, int epoch) {
+    }
+
+    /**
+     * Counts of one chunk. Mostly written from the thread owning the chunk, but an entity that walked
+     * away is uncounted from wherever it was counted, so writes are synchronized; readers may see
+     * stale values. The epoch changes on every recount.
+     */
+    private static final class ChunkCounts {
+        private int total;
+        private int living;
+        // Per-type living counts, allocated on the first living entity
+        private int[] livingByType;
+        private int epoch;
+        // Last on-demand recount, only touched by the owning thread
+        private long verifiedAt = System.nanoTime() - VERIFY_INTERVAL_NANOS;
+
+        /**
+         * @return Epoch the entity is counted in
+         */
+        private synchronized int add(int ordinal) {
+            total++;
+            if (COUNTED_LIVING[ordinal]) {
+                living++;
+                if (livingByType == null) {
+                    livingByType = new int[ENTITY_TYPES.length];
+                }
+
+                livingByType[ordinal]++;
+            }
+
+            return epoch;
+        }
+
+        /**
+         * Uncount an entity, unless a recount since it was counted has already dropped it
+         */
+        private synchronized void remove(int ordinal, int countedEpoch) {
+            if (countedEpoch != epoch) {
+                return;
+            }
+
+            total--;
+            if (COUNTED_LIVING[ordinal]) {
+                living--;
+                livingByType[ordinal]--;
+            }
+        }
+
+        /**
+         * @return New epoch
+         */
+        private synchronized int reset() {
+            total = 0;
+            living = 0;
+            if (livingByType != null) {
+                Arrays.fill(livingByType, 0);
+            }
+
+            return ++epoch;
+        }
+    }
+}
@@ -1,35 +1,69 @@
 package com.clearlagenhanced.managers;
 
 import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.database.DatabaseManager;
+import com.clearlagenhanced.utils.ChunkKeys;
 import com.tcoded.folialib.impl.PlatformScheduler;
 import com.tcoded.folialib.wrapper.task.WrappedTask;
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
-import org.bukkit.entity.Tameable;
+import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class EntityManager {
 
+    private static final EntityType[] ENTITY_TYPES = EntityType.values();
+
     private final ClearLaggEnhanced plugin;
     private final ConfigManager configManager;
     private final PlatformScheduler scheduler;
+    private final ModuleProfiler profiler;
     private WrappedTask clearTask;
     private long nextClearTime;
     private int clearInterval;
+    private final int regionShift;
+    private final boolean incrementalMode;
+    private final long budgetNanos;
+    private final AtomicReference<CompletableFuture<ClearReport>> inFlight = new AtomicReference<>();
+    private volatile ClearReport lastReport;
+    private volatile IncrementalSweep activeSweep;
+    private volatile ClearPolicy policy;
 
     public EntityManager(ClearLaggEnhanced plugin) {
         this.plugin = plugin;
         this.configManager = plugin.getConfigManager();
         this.scheduler = ClearLaggEnhanced.scheduler();
+        this.profiler = plugin.getModuleProfiler();
+        this.regionShift = Math.max(0, Math.min(10, configManager.getInt("threading.region-chunk-shift", 4)));
+        this.incrementalMode = "INCREMENTAL".equalsIgnoreCase(configManager.getString("entity-clearing.mode", "BURST"));
+        this.budgetNanos = Math.max(100L, configManager.getInt("entity-clearing.incremental.tick-budget-us", 2000)) * 1_000L;
+        reloadPolicy();
         startAutoClearTask();
     }
 
+    /**
+     * Recompile the clear policy from the current config and registered protections
+     */
+    public void reloadPolicy() {
+        policy = ClearPolicy.fromConfig(configManager, plugin.getClearProtections(), plugin.getLogger());
+    }
+
+    public ClearPolicy getPolicy() {
+        return policy;
+    }
+
     private void startAutoClearTask() {
         if (!configManager.getBoolean("entity-clearing.enabled", true)) {
             return;
@@ -69,99 +103,258 @@ public class EntityManager {
         plugin.getLogger().info("Entity clearing task started with interval: " + clearInterval + " seconds");
     }
 
-    public int clearEntities() {
-        final long startNanos = System.nanoTime();
+    /**
+     * Start an entity clear without blocking the calling thread. If a clear is already
+     * running, the caller joins it and receives the same report instead of starting a second sweep.
+     * @return Future completed with the report once every region has been swept
+     */
+    public CompletableFuture<ClearReport> clearEntitiesAsync() {
+        return clearEntitiesAsync("MANUAL");
+    }
 
-        final List<String> whitelist = configManager.getStringList("entity-clearing.whitelist");
-        final List<String> worlds = configManager.getStringList("entity-clearing.worlds");
+    /**
+     * Start an entity clear without blocking the calling thread, recording it in the clearing history
+     * @param clearType How the clear was started (AUTO, MANUAL, ...); ignored when joining a running clear
+     * @return Future completed with the report once every region has been swept
+     */
+    public CompletableFuture<ClearReport> clearEntitiesAsync(@NotNull String clearType) {
+        while (true) {
+            CompletableFuture<ClearReport> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
 
-        final List<Entity> snapshot = new ArrayList<>();
-        final CountDownLatch snapshotLatch = new CountDownLatch(1);
-        scheduler.runNextTick(task -> {
-            for (World world : Bukkit.getWorlds()) {
-                if (!worlds.isEmpty() && !worlds.contains(world.getName())) {
-                    continue;
-                }
+            CompletableFuture<ClearReport> future = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, future)) {
+                continue;
+            }
 
-                snapshot.addAll(world.getEntities());
+            CompletableFuture<ClearReport> clear;
+            try {
+                clear = runClear(clearType);
+            } catch (Throwable ex) {
+                inFlight.compareAndSet(future, null);
+                plugin.getLogger().warning("Entity clear failed to start: " + ex.getMessage());
+                future.completeExceptionally(ex);
+                return future;
             }
 
-            snapshotLatch.countDown();
-        });
-        try {
-            snapshotLatch.await();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            clear.whenComplete((report, error) -> {
+                inFlight.compareAndSet(future, null);
+                if (error != null) {
+                    plugin.getLogger().warning("Entity clear failed: " + error.getMessage());
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(report);
+                }
+            });
+
+            return future;
         }
+    }
+
+    private CompletableFuture<ClearReport> runClear(@NotNull String clearType) {
+        final long startNanos = System.nanoTime();
+        final ClearPolicy policy = this.policy;
+        final List<String> worlds = configManager.getStringList("entity-clearing.worlds");
 
-        if (snapshot.isEmpty()) {
-            nextClearTime = System.currentTimeMillis() + (clearInterval * 1000L);
-            if (configManager.getBoolean("notifications.console-notifications", true)) {
-                plugin.getLogger().info("Cleared 0 entities in 0ms");
+        final CompletableFuture<List<RegionBatch>> snapshot = new CompletableFuture<>();
+        scheduler.runNextTick(task -> {
+            try {
+                snapshot.complete(snapshotRegions(worlds));
+            } catch (Throwable ex) {
+                snapshot.completeExceptionally(ex);
             }
+        });
 
-            return 0;
-        }
+        return snapshot
+                .thenCompose(batches -> {
+                    if (batches.isEmpty()) {
+                        return CompletableFuture.completedFuture(List.<RegionResult>of());
+                    }
 
-        final CountDownLatch latch = new CountDownLatch(snapshot.size());
-        final AtomicInteger cleared = new AtomicInteger(0);
+                    return incrementalMode ? new IncrementalSweep(batches, policy).start() : sweepAll(batches, policy);
+                })
+                .thenApply(results -> completeClear(results, startNanos, clearType));
+    }
 
-        for (Entity entity : snapshot) {
-            scheduler.runAtEntity(entity, task -> {
+    /**
+     * Burst mode: schedule every region at once and compose their results.
+     */
+    private CompletableFuture<List<RegionResult>> sweepAll(@NotNull List<RegionBatch> batches, @NotNull ClearPolicy policy) {
+        final List<CompletableFuture<RegionResult>> futures = new ArrayList<>(batches.size());
+        for (RegionBatch batch : batches) {
+            final CompletableFuture<RegionResult> regionFuture = new CompletableFuture<>();
+            futures.add(regionFuture);
+            scheduler.runAtLocation(batch.anchor(), task -> {
+                final long regionStart = System.nanoTime();
+                final int[] removedByType = new int[ENTITY_TYPES.length];
+                int removed = 0;
                 try {
-                    if (!entity.isValid() || entity.isDead()) {
-                        return;
-                    }
-
-                    if (shouldClearEntity(entity, whitelist)) {
-                        entity.remove();
-                        cleared.incrementAndGet();
-                    }
+                    removed = clearRegion(batch, policy, removedByType);
                 } catch (Throwable ex) {
-                    plugin.getLogger().warning("Error while clearing " + entity.getType() + ": " + ex.getMessage());
+                    plugin.getLogger().warning("Error while clearing region [" + batch.regionX() + ", " + batch.regionZ()
+                            + "] in " + batch.world().getName() + ": " + ex.getMessage());
                 } finally {
-                    latch.countDown();
+                    long regionNanos = System.nanoTime() - regionStart;
+                    profiler.record(ModuleProfiler.Module.ENTITY_CLEAR, regionNanos);
+                    regionFuture.complete(new RegionResult(batch.timing(removed, regionNanos), removedByType));
                 }
             });
         }
 
-        try {
-            latch.await();
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> {
+            List<RegionResult> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<RegionResult> future : futures) {
+                results.add(future.join());
+            }
+
+            return results;
+        });
+    }
 
+    private ClearReport completeClear(@NotNull List<RegionResult> results, long startNanos, @NotNull String clearType) {
         final long tookMs = (System.nanoTime() - startNanos) / 1_000_000L;
+
+        int cleared = 0;
+        int[] byTypeCounts = new int[ENTITY_TYPES.length];
+        Map<String, Integer> byWorld = new HashMap<>();
+        List<ClearReport.RegionTiming> timings = new ArrayList<>(results.size());
+        for (RegionResult result : results) {
+            cleared += result.timing().removed();
+            byWorld.merge(result.timing().world(), result.timing().removed(), Integer::sum);
+            timings.add(result.timing());
+            for (int i = 0; i < byTypeCounts.length; i++) {
+                byTypeCounts[i] += result.removedByType()[i];
+            }
+        }
+
+        Map<EntityType, Integer> byType = new EnumMap<>(EntityType.class);
+        for (int i = 0; i < byTypeCounts.length; i++) {
+            if (byTypeCounts[i] > 0) {
+                byType.put(ENTITY_TYPES[i], byTypeCounts[i]);
+            }
+        }
+
+        final ClearReport report = new ClearReport(cleared, Collections.unmodifiableMap(byType), Collections.unmodifiableMap(byWorld),
+                tookMs, results.size(), List.copyOf(timings));
         nextClearTime = System.currentTimeMillis() + (clearInterval * 1000L);
+        lastReport = report;
+
+        DatabaseManager databaseManager = plugin.getDatabaseManager();
+        if (databaseManager != null) {
+            databaseManager.logClearingHistory(report, clearType);
+        }
+
+        if (!configManager.getBoolean("notifications.console-notifications", true)) {
+            return report;
+        }
 
-        if (configManager.getBoolean("notifications.console-notifications", true)) {
-            plugin.getLogger().info("Cleared " + cleared.get() + " entities in " + tookMs + "ms");
+        if (report.regionsTouched() == 0) {
+            plugin.getLogger().info("Cleared 0 entities in " + tookMs + "ms");
+            return report;
         }
 
-        return cleared.get();
+        plugin.getLogger().info("Cleared " + cleared + " entities in " + tookMs + "ms across " + report.regionsTouched() + " regions");
+        ClearReport.RegionTiming slowest = report.slowestRegion();
+        if (slowest != null) {
+            plugin.getLogger().info(String.format("Slowest region: %s [%d, %d] - %d chunks, %d removed in %.2fms",
+                    slowest.world(), slowest.regionX(), slowest.regionZ(), slowest.chunks(), slowest.removed(), slowest.nanos() / 1_000_000.0));
+        }
+
+        return report;
     }
 
-    private boolean shouldClearEntity(Entity entity, List<String> whitelist) {
-        EntityType type = entity.getType();
-        String typeName = type.name();
+    /**
+     * Group every loaded chunk of the targeted worlds by the region section that owns it.
+     * Must be called from the global tick thread.
+     * @param worlds World filter (empty = all worlds)
+     * @return One batch per loaded region section
+     */
+    private List<RegionBatch> snapshotRegions(@NotNull List<String> worlds) {
+        List<RegionBatch> batches = new ArrayList<>();
+        for (World world : Bukkit.getWorlds()) {
+            if (!worlds.isEmpty() && !worlds.contains(world.getName())) {
+                continue;
+            }
+
+            Map<Long, RegionBatch> byRegion = new HashMap<>();
+            for (Chunk chunk : world.getLoadedChunks()) {
+                int regionX = chunk.getX() >> regionShift;
+                int regionZ = chunk.getZ() >> regionShift;
+                byRegion.computeIfAbsent(ChunkKeys.pack(regionX, regionZ), k -> new RegionBatch(world, regionX, regionZ, new ArrayList<>()))
+                        .chunks().add(chunk);
+            }
 
-        if (type == EntityType.PLAYER) {
-            return false;
+            batches.addAll(byRegion.values());
         }
 
-        if (whitelist.contains(typeName)) {
-            return false;
+        return batches;
+    }
+
+    /**
+     * Filter and remove the entities of one region batch in a single pass.
+     * Runs on the thread owning the region.
+     * @return Number of entities removed
+     */
+    private int clearRegion(@NotNull RegionBatch batch, @NotNull ClearPolicy policy, int @NotNull [] removedByType) {
+        int removed = 0;
+        for (Chunk chunk : batch.chunks()) {
+            removed += clearChunk(chunk, policy, removedByType);
         }
 
-        if (configManager.getBoolean("entity-clearing.protect-named-entities", true) && entity.getCustomName() != null) {
-            return false;
+        return removed;
+    }
+
+    private int clearChunk(@NotNull Chunk chunk, @NotNull ClearPolicy policy, int @NotNull [] removedByType) {
+        if (!chunk.isLoaded()) {
+            return 0;
         }
 
-        if (configManager.getBoolean("entity-clearing.protect-tamed-entities", true) && entity instanceof Tameable tameable) {
-            return !tameable.isTamed();
+        int removed = 0;
+        for (Entity entity : chunk.getEntities()) {
+            try {
+                if (!entity.isValid() || entity.isDead()) {
+                    continue;
+                }
+
+                if (policy.shouldClear(entity)) {
+                    removedByType[entity.getType().ordinal()]++;
+                    entity.remove();
+                    removed++;
+                }
+            } catch (Throwable ex) {
+                plugin.getLogger().warning("Error while clearing " + entity.getType() + ": " + ex.getMessage());
+            }
         }
 
-        return true;
+        return removed;
+    }
+
+    /**
+     * Report of the last completed clear
+     * @return The report, or null if no clear has completed yet
+     */
+    public ClearReport getLastReport() {
+        return lastReport;
+    }
+
+    public boolean isClearInProgress() {
+        return inFlight.get() != null;
+    }
+
+    /**
+     * Progress of the incremental sweep currently running
+     * @return Percentage between 0 and 100, or -1 if no incremental sweep is running
+     */
+    public double getSweepProgress() {
+        IncrementalSweep sweep = activeSweep;
+        return sweep == null ? -1 : sweep.progress();
+    }
+
+    public int getSweepCleared() {
+        IncrementalSweep sweep = activeSweep;
+        return sweep == null ? 0 : sweep.cleared;
     }
 
     public long getTimeUntilNextClear() {
@@ -169,6 +362,10 @@ public class EntityManager {
             return -1;
         }
 
+        if (activeSweep != null) {
+            return 0;
+        }
+
         long currentTime = System.currentTimeMillis();
         long timeUntil = (nextClearTime - currentTime) / 1000;
 
@@ -183,7 +380,8 @@ public class EntityManager {
         }
 
         if (seconds == 0) {
-            return "0s";
+            double progress = getSweepProgress();
+            return progress < 0 ? "0s" : String.format("clearing (%.0f%%)", progress);
         }
 
         long minutes = seconds / 60;
@@ -197,10 +395,167 @@ public class EntityManager {
     }
 
     public void shutdown() {
+        IncrementalSweep sweep = activeSweep;
+        if (sweep != null) {
+            sweep.cancel();
+        }
+
         if (clearTask != null) {
             scheduler.cancelTask(clearTask);
             clearTask = null;
             plugin.getLogger().info("Entity clearing task stopped");
         }
     }
+
+    /**
+     * Walks the region batches with a resumable (region, chunk) cursor, spending at most
+     * the configured time budget per tick before yielding to the next tick.
+     */
+    private final class IncrementalSweep {
+
+        private final List<RegionBatch> batches;
+        private final ClearPolicy policy;
+        private final int totalChunks;
+        private final List<RegionResult> results = Collections.synchronizedList(new ArrayList<>());
+        private final CompletableFuture<List<RegionResult>> done = new CompletableFuture<>();
+
+        private volatile int regionIndex;
+        private volatile int chunkIndex;
+        private volatile int chunksDone;
+        private volatile int cleared;
+        private volatile boolean inFlight;
+        private int regionRemoved;
+        private long regionNanos;
+        private int[] regionRemovedByType = new int[ENTITY_TYPES.length];
+        private WrappedTask stepTask;
+
+        private IncrementalSweep(@NotNull List<RegionBatch> batches, @NotNull ClearPolicy policy) {
+            this.batches = batches;
+            this.policy = policy;
+            int chunks = 0;
+            for (RegionBatch batch : batches) {
+                chunks += batch.chunks().size();
+            }
+
+            this.totalChunks = chunks;
+        }
+
+        CompletableFuture<List<RegionResult>> start() {
+            activeSweep = this;
+            stepTask = scheduler.runTimer(this::step, 1L, 1L);
+            return done;
+        }
+
+        void cancel() {
+            finish();
+        }
+
+        double progress() {
+            return totalChunks == 0 ? 100.0 : chunksDone * 100.0 / totalChunks;
+        }
+
+        private void step() {
+            if (inFlight || done.isDone()) {
+                return;
+            }
+
+            if (regionIndex >= batches.size()) {
+                finish();
+                return;
+            }
+
+            final RegionBatch batch = batches.get(regionIndex);
+            final Location anchor = batch.anchor();
+            if (scheduler.isOwnedByCurrentRegion(anchor)) {
+                runSlice(System.nanoTime() + budgetNanos);
+                return;
+            }
+
+            inFlight = true;
+            scheduler.runAtLocation(anchor, task -> {
+                try {
+                    runSlice(System.nanoTime() + budgetNanos);
+                } finally {
+                    inFlight = false;
+                }
+            });
+        }
+
+        /**
+         * Clear whole chunks from the cursor until the deadline passes. On Paper every region is
+         * owned by the main thread, so the slice keeps moving on to the next region while budget remains.
+         */
+        private void runSlice(long deadline) {
+            while (regionIndex < batches.size()) {
+                final RegionBatch batch = batches.get(regionIndex);
+                final List<Chunk> chunks = batch.chunks();
+                final long sliceStart = System.nanoTime();
+
+                while (chunkIndex < chunks.size()) {
+                    int removed = 0;
+                    try {
+                        removed = clearChunk(chunks.get(chunkIndex), policy, regionRemovedByType);
+                    } catch (Throwable ex) {
+                        plugin.getLogger().warning("Error while clearing region [" + batch.regionX() + ", " + batch.regionZ()
+                                + "] in " + batch.world().getName() + ": " + ex.getMessage());
+                    }
+
+                    regionRemoved += removed;
+                    cleared += removed;
+                    chunkIndex++;
+                    chunksDone++;
+
+                    if (System.nanoTime() >= deadline) {
+                        break;
+                    }
+                }
+
+                long sliceNanos = System.nanoTime() - sliceStart;
+                regionNanos += sliceNanos;
+                profiler.record(ModuleProfiler.Module.ENTITY_CLEAR, sliceNanos);
+                if (chunkIndex < chunks.size()) {
+                    return;
+                }
+
+                results.add(new RegionResult(batch.timing(regionRemoved, regionNanos), regionRemovedByType));
+                regionRemoved = 0;
+                regionNanos = 0L;
+                regionRemovedByType = new int[ENTITY_TYPES.length];
+                chunkIndex = 0;
+                regionIndex++;
+
+                if (System.nanoTime() >= deadline || regionIndex >= batches.size()
+                        || !scheduler.isOwnedByCurrentRegion(batches.get(regionIndex).anchor())) {
+                    return;
+                }
+            }
+        }
+
+        private void finish() {
+            if (stepTask != null) {
+                scheduler.cancelTask(stepTask);
+                stepTask = null;
+            }
+
+            if (activeSweep == this) {
+                activeSweep = null;
+            }
+
+            done.complete(new ArrayList<>(results));
+        }
+    }
+
+    private record RegionBatch(@NotNull World world, int regionX, int regionZ, @NotNull List<Chunk> chunks) {
+        Location anchor() {
+            Chunk first = chunks.get(0);
+            return new Location(world, (first.getX() << 4), 0, (first.getZ() << 4));
+        }
+
+        ClearReport.RegionTiming timing(int removed, long nanos) {
+            return new ClearReport.RegionTiming(world.getName(), regionX, regionZ, chunks.size(), removed, nanos);
+        }
+    }
+
+    private record RegionResult(@NotNull ClearReport.RegionTiming timing, int @NotNull [] removedByType) {
+    }
 }
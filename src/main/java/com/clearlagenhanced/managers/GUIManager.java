@@ -2,6 +2,7 @@ package com.clearlagenhanced.managers;
 
 import com.clearlagenhanced.ClearLaggEnhanced;
 import com.clearlagenhanced.utils.MessageUtils;
+import com.clearlagenhanced.utils.TickHistogram;
 import com.tcoded.folialib.impl.PlatformScheduler;
 import com.tcoded.folialib.wrapper.task.WrappedTask;
 import io.papermc.paper.event.player.AsyncChatEvent;
@@ -152,6 +153,9 @@ public class GUIManager implements Listener {
         String memoryUsage = performanceManager.getFormattedMemoryUsage();
         double memoryPercent = performanceManager.getMemoryUsagePercentage();
         int totalEntities = performanceManager.getTotalEntities();
+        TickHistogram.Stats ticks = performanceManager.getTickStats(PerformanceManager.TickWindow.MINUTE_1);
+        double p95 = ticks.samples() > 0 ? ticks.p95() : performanceManager.getMSPT();
+        NamedTextColor msptColor = p95 < 40.0 ? NamedTextColor.GREEN : p95 < 50.0 ? NamedTextColor.YELLOW : NamedTextColor.RED;
         NamedTextColor tpsColor = tps >= 18.0 ? NamedTextColor.GREEN : tps >= 15.0 ? NamedTextColor.YELLOW : NamedTextColor.RED;
         NamedTextColor memoryColor = memoryPercent < 70.0 ? NamedTextColor.GREEN : memoryPercent < 85.0 ? NamedTextColor.YELLOW : NamedTextColor.RED;
 
@@ -160,6 +164,9 @@ public class GUIManager implements Listener {
                 lore("Real-time server statistics", NamedTextColor.GRAY),
                 Component.empty(),
                 lore("TPS: " + String.format("%.2f", tps), tpsColor),
+                lore(ticks.samples() > 0
+                        ? "MSPT (1m): p95 " + String.format("%.1f", p95) + ", max " + String.format("%.1f", ticks.max())
+                        : "MSPT: " + String.format("%.1f", p95), msptColor),
                 lore("Memory: " + memoryUsage + " (" + String.format("%.1f", memoryPercent) + "%)", memoryColor),
                 lore("Entities: " + totalEntities, NamedTextColor.YELLOW),
                 Component.empty(),
@@ -381,12 +388,14 @@ public class GUIManager implements Listener {
                 boolean currentNamed = configManager.getBoolean("entity-clearing.protect-named-entities", true);
                 configManager.set("entity-clearing.protect-named-entities", !currentNamed);
                 plugin.saveConfig();
+                plugin.getEntityManager().reloadPolicy();
                 openEntityClearingGUI(player);
             }
             case 16 -> {
                 boolean currentTamed = configManager.getBoolean("entity-clearing.protect-tamed-entities", true);
                 configManager.set("entity-clearing.protect-tamed-entities", !currentTamed);
                 plugin.saveConfig();
+                plugin.getEntityManager().reloadPolicy();
                 openEntityClearingGUI(player);
             }
             case 31 -> openMainGUI(player);
@@ -0,0 +1,427 @@
+package com.clearlagenhanced.managers;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.utils.ChunkKeys;
+import com.clearlagenhanced.utils.LongLongHashMap;
+import com.tcoded.folialib.impl.PlatformScheduler;
+import com.tcoded.folialib.wrapper.task.WrappedTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.type.Hopper;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Groups hoppers that feed into each other (by facing, or by pulling from the hopper above)
+ * into chains, measures move attempts per second per chain, and throttles whole chains that
+ * exceed a budget. Small setups that merely share a chunk with a big sorter are left alone.
+ * The topology is rebuilt periodically from the tile entity index, one task per region section.
+ */
+public class HopperChainAnalyzer {
+
+    private static final long ABSENT = -1L;
+    private static final long UNLIMITED = Long.MAX_VALUE;
+    private static final double RATE_SMOOTHING = 0.3;
+    // Throttled chains are released once their demand drops below this share of the budget
+    private static final double RELEASE_RATIO = 0.8;
+
+    private final ClearLaggEnhanced plugin;
+    private final PlatformScheduler scheduler;
+    private final TileEntityIndex tileIndex;
+    private final int regionShift;
+    private final int minChainSize;
+    private final int maxMovesPerSecond;
+    private final int topSize;
+    private final long rebuildTicks;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile Topology topology = Topology.EMPTY;
+    private volatile List<Chain> topChains = List.of();
+    private WrappedTask rebuildTask;
+    private WrappedTask rateTask;
+
+    public HopperChainAnalyzer(@NotNull ClearLaggEnhanced plugin) {
+        ConfigManager config = plugin.getConfigManager();
+        this.plugin = plugin;
+        this.scheduler = ClearLaggEnhanced.scheduler();
+        this.tileIndex = plugin.getTileEntityIndex();
+        this.regionShift = Math.max(0, Math.min(10, config.getInt("threading.region-chunk-shift", 4)));
+        this.minChainSize = Math.max(2, config.getInt("lag-prevention.hopper-limiter.chains.min-size", 8));
+        this.maxMovesPerSecond = Math.max(1, config.getInt("lag-prevention.hopper-limiter.chains.max-moves-per-second", 400));
+        this.topSize = Math.max(1, config.getInt("lag-prevention.hopper-limiter.chains.top-size", 10));
+        this.rebuildTicks = Math.max(5, config.getInt("lag-prevention.hopper-limiter.chains.rebuild-interval-seconds", 30)) * 20L;
+    }
+
+    public void start() {
+        if (rebuildTask != null) {
+            return;
+        }
+
+        rebuildTask = scheduler.runTimer(this::rebuild, 20L, rebuildTicks);
+        rateTask = scheduler.runTimer(this::updateRates, 20L, 20L);
+    }
+
+    public void shutdown() {
+        if (rebuildTask != null) {
+            scheduler.cancelTask(rebuildTask);
+            rebuildTask = null;
+        }
+
+        if (rateTask != null) {
+            scheduler.cancelTask(rateTask);
+            rateTask = null;
+        }
+    }
+
+    /**
+     * Count a move attempt of a hopper and check its chain's budget without using it; call
+     * {@link #charge} once the move is actually granted. Allocation-free; hoppers outside any
+     * tracked chain always pass.
+     * @param world World of the hopper
+     * @param hopperKey Packed block key of the hopper
+     * @return true if the chain has budget left for the move
+     */
+    public boolean mayMove(@NotNull World world, long hopperKey) {
+        Topology current = topology;
+        int id = chainOf(current, world, hopperKey);
+        if (id < 0) {
+            return true;
+        }
+
+        current.attempts.incrementAndGet(id);
+        long allowance = current.allowance.get(id);
+        return allowance == UNLIMITED || allowance > 0;
+    }
+
+    /**
+     * Use one move of the hopper's chain budget
+     * @param world World of the hopper
+     * @param hopperKey Packed block key of the hopper
+     */
+    public void charge(@NotNull World world, long hopperKey) {
+        Topology current = topology;
+        int id = chainOf(current, world, hopperKey);
+        if (id >= 0 && current.allowance.get(id) != UNLIMITED) {
+            current.allowance.decrementAndGet(id);
+        }
+    }
+
+    private static int chainOf(@NotNull Topology current, @NotNull World world, long hopperKey) {
+        LongLongHashMap components = current.components.get(world.getUID());
+        return components == null ? -1 : (int) components.getOrDefault(hopperKey, ABSENT);
+    }
+
+    /**
+     * Most demanding chains as of the last rate update, highest first
+     * @return Immutable ranking, at most chains.top-size entries
+     */
+    public List<Chain> getTopChains() {
+        return topChains;
+    }
+
+    /**
+     * Runs every second on the global thread: smooth each chain's attempt rate, refill the
+     * budget of chains over it, release chains that calmed down and publish the ranking.
+     */
+    private void updateRates() {
+        Topology current = topology;
+        int count = current.rates.length;
+        for (int id = 0; id < count; id++) {
+            double rate = current.rates[id] + (current.attempts.getAndSet(id, 0L) - current.rates[id]) * RATE_SMOOTHING;
+            current.rates[id] = rate;
+            boolean throttled = current.allowance.get(id) != UNLIMITED;
+            if (rate > maxMovesPerSecond || (throttled && rate >= maxMovesPerSecond * RELEASE_RATIO)) {
+                current.allowance.set(id, maxMovesPerSecond);
+            } else if (throttled) {
+                current.allowance.set(id, UNLIMITED);
+            }
+        }
+
+        Integer[] order = new Integer[count];
+        for (int id = 0; id < count; id++) {
+            order[id] = id;
+        }
+
+        Arrays.sort(order, Comparator.comparingDouble((Integer id) -> current.rates[id]).reversed());
+        List<Chain> ranking = new ArrayList<>(Math.min(topSize, count));
+        for (int i = 0; i < count && ranking.size() < topSize; i++) {
+            int id = order[i];
+            long anchor = current.anchors[id];
+            ranking.add(new Chain(current.worldNames[id], ChunkKeys.blockX(anchor), ChunkKeys.blockY(anchor), ChunkKeys.blockZ(anchor),
+                    current.sizes[id], current.rates[id], current.allowance.get(id) != UNLIMITED));
+        }
+
+        topChains = List.copyOf(ranking);
+    }
+
+    /**
+     * Collect hopper links region by region on the owning threads, then join them into chains
+     * on the global thread. Skipped while a rebuild is still running.
+     */
+    private void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+
+        List<World> worlds = new ArrayList<>();
+        List<CompletableFuture<Links>> futures = new ArrayList<>();
+        for (World world : Bukkit.getWorlds()) {
+            Map<Long, List<Long>> byRegion = new HashMap<>();
+            for (long chunkKey : tileIndex.chunksWith(world, Material.HOPPER)) {
+                byRegion.computeIfAbsent(ChunkKeys.region(ChunkKeys.unpackX(chunkKey), ChunkKeys.unpackZ(chunkKey), regionShift),
+                        k -> new ArrayList<>()).add(chunkKey);
+            }
+
+            for (List<Long> chunks : byRegion.values()) {
+                CompletableFuture<Links> future = new CompletableFuture<>();
+                worlds.add(world);
+                futures.add(future);
+                long first = chunks.get(0);
+                scheduler.runAtLocation(new Location(world, ChunkKeys.unpackX(first) << 4, 0, ChunkKeys.unpackZ(first) << 4), task -> {
+                    try {
+                        future.complete(collectLinks(world, chunks));
+                    } catch (Throwable ex) {
+                        plugin.getLogger().warning("Hopper chain scan failed in " + world.getName() + ": " + ex.getMessage());
+                        future.complete(new Links());
+                    }
+                });
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((v, error) ->
+                scheduler.runNextTick(task -> {
+                    try {
+                        Map<World, List<Links>> byWorld = new HashMap<>();
+                        for (int i = 0; i < futures.size(); i++) {
+                            byWorld.computeIfAbsent(worlds.get(i), w -> new ArrayList<>()).add(futures.get(i).join());
+                        }
+
+                        topology = buildTopology(byWorld, topology);
+                    } finally {
+                        rebuilding.set(false);
+                    }
+                }));
+    }
+
+    /**
+     * Read the facing of every indexed hopper in the given chunks, dropping index entries that
+     * are no longer hoppers. Runs on the thread owning them.
+     */
+    private Links collectLinks(@NotNull World world, @NotNull List<Long> chunks) {
+        Links links = new Links();
+        LongList stale = new LongList();
+        for (long chunkKey : chunks) {
+            int chunkX = ChunkKeys.unpackX(chunkKey);
+            int chunkZ = ChunkKeys.unpackZ(chunkKey);
+            if (!world.isChunkLoaded(chunkX, chunkZ)) {
+                continue;
+            }
+
+            tileIndex.forEach(world, chunkX, chunkZ, Material.HOPPER, key -> {
+                int x = ChunkKeys.blockX(key);
+                int y = ChunkKeys.blockY(key);
+                int z = ChunkKeys.blockZ(key);
+                BlockData data = world.getBlockAt(x, y, z).getBlockData();
+                if (!(data instanceof Hopper hopper)) {
+                    stale.add(key);
+                    return;
+                }
+
+                BlockFace facing = hopper.getFacing();
+                links.hoppers.add(key);
+                links.from.add(key);
+                links.to.add(ChunkKeys.block(x + facing.getModX(), y + facing.getModY(), z + facing.getModZ()));
+                // Hoppers also pull from the container above them
+                links.from.add(key);
+                links.to.add(ChunkKeys.block(x, y + 1, z));
+            });
+        }
+
+        for (int i = 0; i < stale.size; i++) {
+            tileIndex.forget(world, stale.data[i], Material.HOPPER);
+        }
+
+        return links;
+    }
+
+    /**
+     * Union-find over the collected links. Chains of at least chains.min-size hoppers get an id;
+     * a chain keeps its smoothed rate and throttle state if its anchor hopper was already tracked.
+     * The anchor is the chain's lowest block key, so it does not depend on scan order and only
+     * moves when that very hopper is removed.
+     */
+    private Topology buildTopology(@NotNull Map<World, List<Links>> byWorld, @NotNull Topology previous) {
+        Map<UUID, LongLongHashMap> components = new HashMap<>();
+        List<UUID> worldIds = new ArrayList<>();
+        List<String> worldNames = new ArrayList<>();
+        LongList anchors = new LongList();
+        List<Integer> sizes = new ArrayList<>();
+
+        for (Map.Entry<World, List<Links>> entry : byWorld.entrySet()) {
+            LongLongHashMap nodeIndex = new LongLongHashMap();
+            LongList nodes = new LongList();
+            for (Links links : entry.getValue()) {
+                for (int i = 0; i < links.hoppers.size; i++) {
+                    long key = links.hoppers.data[i];
+                    if (!nodeIndex.containsKey(key)) {
+                        nodeIndex.put(key, nodes.size);
+                        nodes.add(key);
+                    }
+                }
+            }
+
+            int[] parent = new int[nodes.size];
+            for (int i = 0; i < parent.length; i++) {
+                parent[i] = i;
+            }
+
+            for (Links links : entry.getValue()) {
+                for (int i = 0; i < links.from.size; i++) {
+                    long target = nodeIndex.getOrDefault(links.to.data[i], ABSENT);
+                    if (target != ABSENT) {
+                        union(parent, (int) nodeIndex.get(links.from.data[i]), (int) target);
+                    }
+                }
+            }
+
+            int[] rootSize = new int[parent.length];
+            long[] rootAnchor = new long[parent.length];
+            Arrays.fill(rootAnchor, Long.MAX_VALUE);
+            for (int i = 0; i < parent.length; i++) {
+                int root = find(parent, i);
+                rootSize[root]++;
+                rootAnchor[root] = Math.min(rootAnchor[root], nodes.data[i]);
+            }
+
+            int[] rootComponent = new int[parent.length];
+            Arrays.fill(rootComponent, -1);
+            LongLongHashMap worldComponents = new LongLongHashMap();
+            for (int i = 0; i < parent.length; i++) {
+                int root = find(parent, i);
+                if (rootSize[root] < minChainSize) {
+                    continue;
+                }
+
+                if (rootComponent[root] < 0) {
+                    rootComponent[root] = sizes.size();
+                    worldIds.add(entry.getKey().getUID());
+                    worldNames.add(entry.getKey().getName());
+                    anchors.add(rootAnchor[root]);
+                    sizes.add(rootSize[root]);
+                }
+
+                worldComponents.put(nodes.data[i], rootComponent[root]);
+            }
+
+            if (!worldComponents.isEmpty()) {
+                components.put(entry.getKey().getUID(), worldComponents);
+            }
+        }
+
+        Topology next = new Topology(components, worldNames.toArray(new String[0]), Arrays.copyOf(anchors.data, anchors.size),
+                sizes.stream().mapToInt(Integer::intValue).toArray());
+        for (int id = 0; id < next.anchors.length; id++) {
+            LongLongHashMap old = previous.components.get(worldIds.get(id));
+            long oldId = old == null ? ABSENT : old.getOrDefault(next.anchors[id], ABSENT);
+            if (oldId != ABSENT) {
+                next.rates[id] = previous.rates[(int) oldId];
+                next.allowance.set(id, previous.allowance.get((int) oldId));
+            }
+        }
+
+        return next;
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+
+        return node;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+
+    /**
+     * A chain as shown by /lagg hoppers
+     * @param world World name
+     * @param x Anchor hopper X
+     * @param y Anchor hopper Y
+     * @param z Anchor hopper Z
+     * @param hoppers Number of hoppers in the chain
+     * @param rate Smoothed move attempts per second
+     * @param throttled Whether the chain is currently held to its budget
+     */
+    public record Chain(@NotNull String world, int x, int y, int z, int hoppers, double rate, boolean throttled) {
+    }
+
+    /**
+     * Immutable chain membership plus the per-chain counters. Published as a whole on rebuild.
+     */
+    private static final class Topology {
+        private static final Topology EMPTY = new Topology(Map.of(), new String[0], new long[0], new int[0]);
+
+        private final Map<UUID, LongLongHashMap> components;
+        private final String[] worldNames;
+        private final long[] anchors;
+        private final int[] sizes;
+        private final AtomicLongArray attempts;
+        private final AtomicLongArray allowance;
+        // Only touched by the rate task
+        private final double[] rates;
+
+        private Topology(@NotNull Map<UUID, LongLongHashMap> components, @NotNull String[] worldNames,
+                         @NotNull long[] anchors, @NotNull int[] sizes) {
+            this.components = components;
+            this.worldNames = worldNames;
+            this.anchors = anchors;
+            this.sizes = sizes;
+            this.attempts = new AtomicLongArray(anchors.length);
+            this.allowance = new AtomicLongArray(anchors.length);
+            this.rates = new double[anchors.length];
+            for (int i = 0; i < anchors.length; i++) {
+                allowance.set(i, UNLIMITED);
+            }
+        }
+    }
+
+    private static final class Links {
+        private final LongList hoppers = new LongList();
+        private final LongList from = new LongList();
+        private final LongList to = new LongList();
+    }
+
+    private static final class LongList {
+        private long[] data = new long[16];
+        private int size;
+
+        private void add(long value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+
+            data[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.clearlagenhanced.managers;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.tcoded.folialib.impl.PlatformScheduler;
+import com.tcoded.folialib.wrapper.task.WrappedTask;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Samples MSPT (the 5 second p95 by default) and publishes a pressure level from 0 (idle) to 3 (overloaded). Lag-prevention
+ * modules scale their limits with the factors of the current level: tighter under load, and
+ * optionally vanilla behavior when the server is idle. Raising the level is immediate; it is
+ * lowered one step at a time once MSPT drops below the level's threshold minus a hysteresis.
+ */
+public class LagGovernor {
+
+    public static final int MAX_LEVEL = 3;
+
+    private static final double[] DEFAULT_MSPT = {0.0, 40.0, 47.0, 55.0};
+    private static final double[] DEFAULT_HOPPER_BUDGET = {1.0, 0.75, 0.5, 0.25};
+    private static final double[] DEFAULT_REDSTONE_THRESHOLDS = {1.0, 0.75, 0.5, 0.25};
+    private static final double[] DEFAULT_MOB_CAP = {1.0, 0.9, 0.75, 0.5};
+    private static final double[] DEFAULT_SPAWNER_DELAY = {1.0, 1.25, 1.5, 2.0};
+
+    private final ClearLaggEnhanced plugin;
+    private final PlatformScheduler scheduler;
+    private final boolean enabled;
+    private final long intervalTicks;
+    private final double hysteresisMspt;
+    private final boolean usePercentile;
+    private final Level[] levels = new Level[MAX_LEVEL + 1];
+
+    private volatile Level current;
+    private WrappedTask sampleTask;
+
+    public LagGovernor(@NotNull ClearLaggEnhanced plugin) {
+        ConfigManager config = plugin.getConfigManager();
+        this.plugin = plugin;
+        this.scheduler = ClearLaggEnhanced.scheduler();
+        this.enabled = config.getBoolean("lag-prevention.governor.enabled", true);
+        this.intervalTicks = Math.max(1, config.getInt("lag-prevention.governor.check-interval-ticks", 20));
+        this.hysteresisMspt = Math.max(0.0, config.getDouble("lag-prevention.governor.hysteresis-mspt", 3.0));
+        this.usePercentile = "p95".equalsIgnoreCase(config.getString("lag-prevention.governor.metric", "p95"));
+
+        for (int i = 0; i <= MAX_LEVEL; i++) {
+            String path = "lag-prevention.governor.levels." + i + ".";
+            double mspt = i == 0 ? 0.0 : Math.max(levels[i - 1].mspt(), config.getDouble(path + "mspt", DEFAULT_MSPT[i]));
+            levels[i] = new Level(i, mspt,
+                    config.getBoolean(path + "vanilla", false),
+                    Math.max(0.0, config.getDouble(path + "hopper-budget", DEFAULT_HOPPER_BUDGET[i])),
+                    Math.max(0.0, config.getDouble(path + "redstone-thresholds", DEFAULT_REDSTONE_THRESHOLDS[i])),
+                    Math.max(0.0, config.getDouble(path + "mob-cap", DEFAULT_MOB_CAP[i])),
+                    Math.max(1.0, config.getDouble(path + "spawner-delay", DEFAULT_SPAWNER_DELAY[i])));
+        }
+
+        this.current = levels[0];
+    }
+
+    public void start() {
+        if (!enabled || sampleTask != null) {
+            return;
+        }
+
+        sampleTask = scheduler.runTimer(this::sample, intervalTicks, intervalTicks);
+    }
+
+    public void shutdown() {
+        if (sampleTask != null) {
+            scheduler.cancelTask(sampleTask);
+            sampleTask = null;
+        }
+
+        current = levels[0];
+    }
+
+    /**
+     * Current pressure level with its scaling factors. Cheap enough to call on every event.
+     * @return Published level, level 0 while the governor is disabled
+     */
+    @NotNull
+    public Level current() {
+        return current;
+    }
+
+    private void sample() {
+        PerformanceManager performance = plugin.getPerformanceManager();
+        if (performance == null) {
+            return;
+        }
+
+        // Averages hide the spikes the governor exists for, so by default it reacts to the 5s p95
+        double mspt = usePercentile ? performance.getP95MSPT(PerformanceManager.TickWindow.SECONDS_5) : performance.getMSPT();
+        int level = current.level();
+        int target = 0;
+        for (int i = MAX_LEVEL; i > 0; i--) {
+            if (mspt >= levels[i].mspt()) {
+                target = i;
+                break;
+            }
+        }
+
+        int next = level;
+        if (target > level) {
+            next = target;
+        } else if (target < level && mspt < levels[level].mspt() - hysteresisMspt) {
+            next = level - 1;
+        }
+
+        if (next != level) {
+            current = levels[next];
+            plugin.getLogger().info("Lag governor pressure " + level + " -> " + next + String.format(" (%.1f MSPT)", mspt));
+        }
+    }
+
+    /**
+     * Scaling applied by the lag-prevention modules at one pressure level
+     * @param level Pressure level, 0 to {@link #MAX_LEVEL}
+     * @param mspt MSPT at which this level is entered
+     * @param vanilla Whether the limiters stand down entirely at this level
+     * @param hopperBudget Factor for hopper move budgets
+     * @param redstoneThresholds Factor for redstone block and chunk thresholds
+     * @param mobCap Factor for mob caps per chunk
+     * @param spawnerDelay Extra factor for the spawner delay multiplier
+     */
+    public record Level(int level, double mspt, boolean vanilla, double hopperBudget, double redstoneThresholds,
+                        double mobCap, double spawnerDelay) {
+
+        /**
+         * Scale a limit, keeping at least 1 so a positive limit never turns into "no limit"
+         * @param limit Configured limit
+         * @param factor Factor of this level
+         * @return Scaled limit
+         */
+        public static int scale(int limit, double factor) {
+            return limit <= 0 ? limit : Math.max(1, (int) Math.round(limit * factor));
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.clearlagenhanced.ClearLaggEnhanced;
 import com.tcoded.folialib.impl.PlatformScheduler;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
@@ -13,41 +14,87 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class LagPreventionManager {
 
     private final PlatformScheduler scheduler;
+    private final EntityCensus census;
+    private final LagGovernor governor;
+    private final ChunkTelemetry telemetry;
     private final AtomicInteger maxMobsPerChunk;
     private final boolean hopperLimiterEnabled;
     private final boolean redstoneLimiterEnabled;
     private final boolean mobLimiterEnabled;
+    private final double redstoneExcessiveRate;
+    private final double hopperExcessiveRate;
+    private final int maxHoppersPerChunk;
 
     public LagPreventionManager(@NotNull ClearLaggEnhanced plugin) {
         ConfigManager configManager = plugin.getConfigManager();
         this.scheduler = ClearLaggEnhanced.scheduler();
+        this.census = plugin.getEntityCensus();
+        this.governor = plugin.getLagGovernor();
+        this.telemetry = plugin.getChunkTelemetry();
         this.mobLimiterEnabled = configManager.getBoolean("lag-prevention.mob-limiter.enabled", true);
         this.maxMobsPerChunk = new AtomicInteger(configManager.getInt("lag-prevention.mob-limiter.max-mobs-per-chunk", 50));
         this.hopperLimiterEnabled = configManager.getBoolean("lag-prevention.hopper-limiter.enabled", true);
         this.redstoneLimiterEnabled = configManager.getBoolean("lag-prevention.redstone-limiter.enabled", true);
+        this.redstoneExcessiveRate = Math.max(1, configManager.getInt("performance.telemetry.redstone-excessive-rate", 400));
+        this.hopperExcessiveRate = Math.max(1, configManager.getInt("performance.telemetry.hopper-excessive-rate", 200));
+        this.maxHoppersPerChunk = Math.max(0, configManager.getInt("lag-prevention.hopper-limiter.max-hoppers-per-chunk", 0));
     }
 
     public boolean isMobLimitReached(@NotNull Chunk chunk) {
-        if (!mobLimiterEnabled) {
-            return false;
-        }
+        return isMobLimitReached(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
 
-        AtomicInteger mobCount = new AtomicInteger(0);
-        for (Entity entity : chunk.getEntities()) {
-            if (entity instanceof LivingEntity && entity.getType() != EntityType.PLAYER) {
-                mobCount.incrementAndGet();
-            }
+    /**
+     * Check the living-entity cap of a chunk against the entity census. The chunk's entities are
+     * only recounted when the census puts it at the cap. Must be called from the thread owning the chunk.
+     * @param world World of the chunk
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @return true if the chunk already holds max-mobs-per-chunk living entities, scaled by the governor
+     */
+    public boolean isMobLimitReached(@NotNull World world, int chunkX, int chunkZ) {
+        LagGovernor.Level pressure = governor.current();
+        if (!mobLimiterEnabled || pressure.vanilla()) {
+            return false;
         }
 
-        return mobCount.get() >= maxMobsPerChunk.get();
+        return census.isChunkLivingAtLeast(world, chunkX, chunkZ, null, LagGovernor.Level.scale(maxMobsPerChunk.get(), pressure.mobCap()));
     }
 
     public boolean isRedstoneExcessive(@NotNull Chunk chunk) {
-        return false;
+        return isRedstoneExcessive(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Whether a chunk currently runs more redstone activations than performance.telemetry.redstone-excessive-rate
+     * @param world World of the chunk
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @return true if the chunk is a redstone hotspot
+     */
+    public boolean isRedstoneExcessive(@NotNull World world, int chunkX, int chunkZ) {
+        return redstoneLimiterEnabled && telemetry.getRedstoneRate(world, chunkX, chunkZ) >= redstoneExcessiveRate;
     }
 
     public boolean areHoppersExcessive(@NotNull Chunk chunk) {
-        return false;
+        return areHoppersExcessive(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Whether a chunk's hoppers currently attempt more moves than performance.telemetry.hopper-excessive-rate,
+     * or the chunk holds more than max-hoppers-per-chunk hoppers
+     * @param world World of the chunk
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @return true if the chunk is a hopper hotspot
+     */
+    public boolean areHoppersExcessive(@NotNull World world, int chunkX, int chunkZ) {
+        if (!hopperLimiterEnabled) {
+            return false;
+        }
+
+        return telemetry.getHopperRate(world, chunkX, chunkZ) >= hopperExcessiveRate
+                || (maxHoppersPerChunk > 0 && telemetry.getHopperCount(world, chunkX, chunkZ) > maxHoppersPerChunk);
     }
 
     public void optimizeChunk(@NotNull Chunk chunk, @NotNull Location location) {
@@ -0,0 +1,236 @@
+package com.clearlagenhanced.managers;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.database.DatabaseManager;
+import com.clearlagenhanced.utils.ChunkKeys;
+import com.clearlagenhanced.utils.LongLongHashMap;
+import com.tcoded.folialib.impl.PlatformScheduler;
+import com.tcoded.folialib.wrapper.task.WrappedTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the laggy_chunks table as a server-wide index of laggy loaded chunks. Every pass scores
+ * all loaded chunks with the {@link ChunkCostEngine}, one task per region section, and only rows
+ * that appeared, disappeared or whose score moved by at least min-change are written.
+ */
+public class LaggyChunkIndexer {
+
+    private final ClearLaggEnhanced plugin;
+    private final PlatformScheduler scheduler;
+    private final boolean enabled;
+    private final long intervalTicks;
+    private final int regionShift;
+    private final int entityThreshold;
+    private final double scoreThreshold;
+    private final double minChange;
+    private final int topSize;
+    private final AtomicBoolean indexing = new AtomicBoolean();
+
+    // Scores as last written to the table, per world name: chunk key -> raw double bits.
+    // Only touched by the merge step of a pass, under passLock.
+    private final Object passLock = new Object();
+    private Map<String, LongLongHashMap> persisted = new HashMap<>();
+    private long seenWriteFailures;
+    // Bumped on shutdown so a pass still in flight does not write after the table is cleared
+    private int generation;
+    private WrappedTask indexTask;
+
+    public LaggyChunkIndexer(@NotNull ClearLaggEnhanced plugin) {
+        ConfigManager config = plugin.getConfigManager();
+        this.plugin = plugin;
+        this.scheduler = ClearLaggEnhanced.scheduler();
+        this.enabled = config.getBoolean("chunk-finder.global.enabled", true);
+        this.intervalTicks = Math.max(1, config.getInt("chunk-finder.global.interval-seconds", 60)) * 20L;
+        this.regionShift = Math.max(0, Math.min(10, config.getInt("threading.region-chunk-shift", 4)));
+        this.entityThreshold = config.getInt("chunk-finder.entity-threshold", 50);
+        this.scoreThreshold = config.getDouble("chunk-finder.score-threshold", 50.0);
+        this.minChange = Math.max(0.0, config.getDouble("chunk-finder.global.min-change", 1.0));
+        this.topSize = Math.max(1, config.getInt("chunk-finder.global.top-size", 10));
+    }
+
+    public void start() {
+        if (!enabled || indexTask != null) {
+            return;
+        }
+
+        // Rows of a previous run describe chunks this index does not track
+        DatabaseManager databaseManager = plugin.getDatabaseManager();
+        if (databaseManager != null) {
+            databaseManager.clearLaggyChunks();
+        }
+
+        synchronized (passLock) {
+            persisted = new HashMap<>();
+            seenWriteFailures = databaseManager == null ? 0L : databaseManager.getWriteFailures();
+        }
+
+        indexTask = scheduler.runTimer(this::index, 20L, intervalTicks);
+    }
+
+    public void shutdown() {
+        // Once this returns, no pass of this indexer enqueues another write
+        synchronized (passLock) {
+            generation++;
+        }
+
+        if (indexTask != null) {
+            scheduler.cancelTask(indexTask);
+            indexTask = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled && plugin.getDatabaseManager() != null;
+    }
+
+    /**
+     * Highest scoring chunks of the index, read from the database
+     * @return Up to chunk-finder.global.top-size chunks, highest score first
+     */
+    @NotNull
+    public CompletableFuture<List<DatabaseManager.LaggyChunkData>> getTop() {
+        DatabaseManager databaseManager = plugin.getDatabaseManager();
+        if (databaseManager == null) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+
+        return databaseManager.getLaggyChunks(topSize);
+    }
+
+    /**
+     * Score every loaded chunk, one task per region section, then write the differences.
+     * Runs on the global tick thread; skipped while a pass is still running.
+     */
+    private void index() {
+        if (!indexing.compareAndSet(false, true)) {
+            return;
+        }
+
+        int pass;
+        synchronized (passLock) {
+            pass = generation;
+        }
+
+        ChunkCostEngine costEngine = plugin.getChunkCostEngine();
+        List<CompletableFuture<List<ChunkCostEngine.ChunkCost>>> futures = new ArrayList<>();
+        for (World world : Bukkit.getWorlds()) {
+            Map<Long, List<Chunk>> byRegion = new HashMap<>();
+            for (Chunk chunk : world.getLoadedChunks()) {
+                byRegion.computeIfAbsent(ChunkKeys.region(chunk.getX(), chunk.getZ(), regionShift), k -> new ArrayList<>()).add(chunk);
+            }
+
+            for (List<Chunk> chunks : byRegion.values()) {
+                final CompletableFuture<List<ChunkCostEngine.ChunkCost>> future = new CompletableFuture<>();
+                futures.add(future);
+                Chunk first = chunks.get(0);
+                scheduler.runAtLocation(new Location(world, first.getX() << 4, 0, first.getZ() << 4), task -> {
+                    List<ChunkCostEngine.ChunkCost> laggy = new ArrayList<>();
+                    try {
+                        for (Chunk chunk : chunks) {
+                            if (!chunk.isLoaded()) {
+                                continue;
+                            }
+
+                            ChunkCostEngine.ChunkCost cost = costEngine.cost(world, chunk.getX(), chunk.getZ());
+                            if (cost.entities() >= entityThreshold || cost.score() >= scoreThreshold) {
+                                laggy.add(cost);
+                            }
+                        }
+                    } catch (Throwable ex) {
+                        plugin.getLogger().warning("Laggy chunk index failed to score a region in " + world.getName() + ": " + ex.getMessage());
+                    } finally {
+                        future.complete(laggy);
+                    }
+                });
+            }
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).whenComplete((v, error) -> {
+            try {
+                synchronized (passLock) {
+                    if (pass == generation) {
+                        merge(futures);
+                    }
+                }
+            } finally {
+                indexing.set(false);
+            }
+        });
+    }
+
+    private void merge(@NotNull List<CompletableFuture<List<ChunkCostEngine.ChunkCost>>> futures) {
+        DatabaseManager databaseManager = plugin.getDatabaseManager();
+        long failures = databaseManager == null ? 0L : databaseManager.getWriteFailures();
+        if (failures != seenWriteFailures) {
+            // Some queued rows were dropped, so the table no longer matches what we think we wrote: rewrite it
+            seenWriteFailures = failures;
+            databaseManager.clearLaggyChunks();
+            persisted = new HashMap<>();
+        }
+
+        Map<String, LongLongHashMap> current = new HashMap<>();
+        for (CompletableFuture<List<ChunkCostEngine.ChunkCost>> future : futures) {
+            for (ChunkCostEngine.ChunkCost cost : future.join()) {
+                current.computeIfAbsent(cost.world(), w -> new LongLongHashMap())
+                        .put(ChunkKeys.pack(cost.x(), cost.z()), Double.doubleToRawLongBits(write(cost)));
+            }
+        }
+
+        removeMissing(current);
+        persisted = current;
+    }
+
+    /**
+     * Upsert a chunk unless its stored score is within min-change of the new one
+     * @param cost Fresh cost of the chunk
+     * @return Score the table now holds for the chunk
+     */
+    private double write(@NotNull ChunkCostEngine.ChunkCost cost) {
+        LongLongHashMap scores = persisted.get(cost.world());
+        long key = ChunkKeys.pack(cost.x(), cost.z());
+        if (scores != null && scores.containsKey(key)) {
+            double stored = Double.longBitsToDouble(scores.get(key));
+            if (Math.abs(stored - cost.score()) < minChange) {
+                return stored;
+            }
+        }
+
+        DatabaseManager databaseManager = plugin.getDatabaseManager();
+        if (databaseManager != null) {
+            databaseManager.upsertLaggyChunk(new DatabaseManager.LaggyChunkData(cost.world(), cost.x(), cost.z(),
+                    cost.entities(), cost.score()));
+        }
+
+        return cost.score();
+    }
+
+    private void removeMissing(@NotNull Map<String, LongLongHashMap> current) {
+        DatabaseManager databaseManager = plugin.getDatabaseManager();
+        for (Map.Entry<String, LongLongHashMap> entry : persisted.entrySet()) {
+            LongLongHashMap scores = entry.getValue();
+            LongLongHashMap fresh = current.get(entry.getKey());
+            // The scan includes the map's zero-key slot, so chunk (0,0) is deleted like any other
+            for (int slot = 0; slot < scores.slots(); slot++) {
+                if (scores.isFree(slot)) {
+                    continue;
+                }
+
+                long key = scores.keyAt(slot);
+                if ((fresh == null || !fresh.containsKey(key)) && databaseManager != null) {
+                    databaseManager.removeLaggyChunk(entry.getKey(), ChunkKeys.unpackX(key), ChunkKeys.unpackZ(key));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.clearlagenhanced.managers;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.utils.TickHistogram;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import com.tcoded.folialib.impl.PlatformScheduler;
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Memory pressure from the collector's point of view. Raw heap usage is mostly garbage waiting
+ * to be collected, so this listens to GC notifications instead and keeps the old generation
+ * occupancy right after collections (the live set), the allocation rate measured between
+ * collections from the young generation, and a histogram of collection durations. With
+ * concurrent collectors (ZGC, Shenandoah) durations are cycle times rather than pauses.
+ */
+public class MemoryMonitor {
+
+    private static final int WINDOW_1M = 0;
+    private static final int WINDOW_5M = 1;
+    private static final double SMOOTHING = 0.3;
+    // Length of a stand-in cycle when no collector reports concurrent cycle ends
+    private static final long FLOOR_WINDOW_MS = 60_000L;
+
+    private final ClearLaggEnhanced plugin;
+    private final PlatformScheduler scheduler;
+    private final double highPercent;
+    private final boolean clearTrigger;
+    private final long clearCooldownMs;
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener listener = this::onNotification;
+    private final TickHistogram gcDurations = new TickHistogram(60, 300);
+
+    // Written by the JMX notification thread under the monitor lock, read from anywhere
+    private volatile long liveSetBytes = -1L;
+    private volatile long liveSetMaxBytes = -1L;
+    private volatile double allocationBytesPerSecond;
+    private long lastYoungAfterBytes = -1L;
+    // Lowest old generation occupancy after a partial collection since the last concurrent cycle ended
+    private long cycleFloorBytes = -1L;
+    private long cycleFloorStartMs = -1L;
+    // Whether a collector reports the end of G1 concurrent cycles (JDK 20+)
+    private volatile boolean cycleCollector;
+    private long lastGcEndMs = -1L;
+    private long lastTriggerMs;
+
+    public MemoryMonitor(@NotNull ClearLaggEnhanced plugin) {
+        ConfigManager config = plugin.getConfigManager();
+        this.plugin = plugin;
+        this.scheduler = ClearLaggEnhanced.scheduler();
+        this.highPercent = Math.max(1.0, Math.min(100.0, config.getDouble("performance.memory.high-percent", 85.0)));
+        this.clearTrigger = config.getBoolean("entity-clearing.memory-trigger.enabled", false);
+        this.clearCooldownMs = Math.max(30, config.getInt("entity-clearing.memory-trigger.cooldown-seconds", 300)) * 1000L;
+    }
+
+    public void start() {
+        if (!emitters.isEmpty()) {
+            return;
+        }
+
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (bean.getName().toLowerCase(Locale.ROOT).contains("concurrent")) {
+                cycleCollector = true;
+            }
+
+            if (bean instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    public void shutdown() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException ignored) {
+            }
+        }
+
+        emitters.clear();
+    }
+
+    /**
+     * @return true once a collection has been observed
+     */
+    public boolean hasData() {
+        return liveSetBytes >= 0;
+    }
+
+    /**
+     * @return Estimated old generation live set in bytes, or -1 before the first collection
+     */
+    public long getLiveSetBytes() {
+        return liveSetBytes;
+    }
+
+    /**
+     * @return Live set as a percentage of the old generation maximum (or the heap maximum), or -1 before the first collection
+     */
+    public double getLiveSetPercentage() {
+        long live = liveSetBytes;
+        long max = liveSetMaxBytes > 0 ? liveSetMaxBytes : Runtime.getRuntime().maxMemory();
+        return live < 0 ? -1.0 : (double) live / max * 100.0;
+    }
+
+    /**
+     * @return Smoothed young generation allocation rate in bytes per second, 0 if the collector has no young pool
+     */
+    public double getAllocationRate() {
+        return allocationBytesPerSecond;
+    }
+
+    /**
+     * Whether the heap is under real pressure: the post-GC live set is above performance.memory.high-percent.
+     * Falls back to raw heap usage until the first collection.
+     */
+    public boolean isMemoryHigh() {
+        if (!hasData()) {
+            Runtime runtime = Runtime.getRuntime();
+            return (double) (runtime.totalMemory() - runtime.freeMemory()) / runtime.maxMemory() * 100.0 > highPercent;
+        }
+
+        return getLiveSetPercentage() > highPercent;
+    }
+
+    /**
+     * @return Collection durations over the last minute
+     */
+    @NotNull
+    public TickHistogram.Stats getGcStatsMinute() {
+        return gcDurations.stats(WINDOW_1M);
+    }
+
+    /**
+     * @return Collection durations over the last five minutes
+     */
+    @NotNull
+    public TickHistogram.Stats getGcStatsFiveMinutes() {
+        return gcDurations.stats(WINDOW_5M);
+    }
+
+    /**
+     * Current usage of every heap pool
+     * @return One entry per pool, in JVM order
+     */
+    @NotNull
+    public List<PoolUsage> getPoolUsage() {
+        List<PoolUsage> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isValid()) {
+                continue;
+            }
+
+            MemoryUsage usage = pool.getUsage();
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            pools.add(new PoolUsage(pool.getName(), usage.getUsed(), usage.getCommitted(), usage.getMax(),
+                    afterGc == null ? -1L : afterGc.getUsed()));
+        }
+
+        return pools;
+    }
+
+    private void onNotification(@NotNull Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        GcInfo gcInfo = info.getGcInfo();
+        gcDurations.record(gcInfo.getDuration());
+
+        boolean high;
+        synchronized (this) {
+            String name = info.getGcName().toLowerCase(Locale.ROOT);
+            recordCollection(gcInfo, isWholeHeap(name, info.getGcAction().toLowerCase(Locale.ROOT)), name.contains("concurrent"));
+            high = isMemoryHigh();
+        }
+
+        if (high) {
+            triggerClear();
+        }
+    }
+
+    /**
+     * Whether a collection swept the whole old generation: full collections of the generational
+     * collectors, and every cycle of ZGC and Shenandoah except generational ZGC's minor cycles
+     */
+    private static boolean isWholeHeap(@NotNull String name, @NotNull String action) {
+        return action.contains("major") || (name.contains("cycles") && !name.contains("minor"));
+    }
+
+    /**
+     * After a young collection the old generation still holds promoted objects that may already be
+     * dead, and G1 reports its mixed collections as young ones. So young collections only ever lower
+     * the live set; it is raised to the lowest occupancy seen over a whole G1 concurrent cycle when
+     * that cycle ends (reported by the "G1 Concurrent GC" collector), or taken as is after a full one.
+     * Before JDK 20 G1 reports no cycle ends, so the lowest occupancy over each minute of partial
+     * collections stands in for a cycle; it rises when mixed collections stop reclaiming the old generation.
+     */
+    private void recordCollection(@NotNull GcInfo gcInfo, boolean wholeHeap, boolean cycleEnd) {
+        long oldUsed = 0L;
+        long oldMax = 0L;
+        boolean sawOld = false;
+        long youngBefore = 0L;
+        long youngAfter = 0L;
+        boolean sawYoung = false;
+        Map<String, MemoryUsage> before = gcInfo.getMemoryUsageBeforeGc();
+        for (Map.Entry<String, MemoryUsage> entry : gcInfo.getMemoryUsageAfterGc().entrySet()) {
+            String name = entry.getKey().toLowerCase(Locale.ROOT);
+            MemoryUsage after = entry.getValue();
+            if (name.contains("eden")) {
+                MemoryUsage used = before.get(entry.getKey());
+                youngBefore += used == null ? 0L : used.getUsed();
+                youngAfter += after.getUsed();
+                sawYoung = true;
+            } else if (isOldPool(name)) {
+                oldUsed += after.getUsed();
+                oldMax += Math.max(0L, after.getMax());
+                sawOld = true;
+            }
+        }
+
+        if (sawOld) {
+            liveSetMaxBytes = oldMax;
+            if (wholeHeap) {
+                liveSetBytes = oldUsed;
+                cycleFloorBytes = -1L;
+            } else {
+                if (cycleFloorBytes < 0) {
+                    cycleFloorStartMs = gcInfo.getStartTime();
+                }
+
+                cycleFloorBytes = cycleFloorBytes < 0 ? oldUsed : Math.min(cycleFloorBytes, oldUsed);
+                if (liveSetBytes < 0 || oldUsed < liveSetBytes) {
+                    liveSetBytes = oldUsed;
+                }
+            }
+        }
+
+        boolean windowEnd = !cycleCollector && cycleFloorBytes >= 0 && gcInfo.getEndTime() - cycleFloorStartMs >= FLOOR_WINDOW_MS;
+        if ((cycleEnd || windowEnd) && cycleFloorBytes >= 0) {
+            liveSetBytes = cycleFloorBytes;
+            cycleFloorBytes = -1L;
+        }
+
+        // Everything allocated since the previous collection sits in eden when this one starts
+        if (sawYoung && !cycleEnd) {
+            if (lastYoungAfterBytes >= 0 && gcInfo.getStartTime() > lastGcEndMs) {
+                double rate = Math.max(0L, youngBefore - lastYoungAfterBytes) * 1000.0 / (gcInfo.getStartTime() - lastGcEndMs);
+                allocationBytesPerSecond = allocationBytesPerSecond == 0.0 ? rate
+                        : allocationBytesPerSecond * (1.0 - SMOOTHING) + rate * SMOOTHING;
+            }
+
+            lastYoungAfterBytes = youngAfter;
+            lastGcEndMs = gcInfo.getEndTime();
+        }
+    }
+
+    private static boolean isOldPool(@NotNull String name) {
+        // GC info covers every pool, non-heap ones included; single-pool collectors (ZHeap, Shenandoah) count as old
+        return name.contains("old") || name.contains("tenured") || name.equals("zheap") || name.equals("shenandoah");
+    }
+
+    private void triggerClear() {
+        if (!clearTrigger) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (now - lastTriggerMs < clearCooldownMs) {
+                return;
+            }
+
+            lastTriggerMs = now;
+        }
+
+        plugin.getLogger().info(String.format("Post-GC live set at %.1f%% of the old generation, clearing entities", getLiveSetPercentage()));
+        scheduler.runNextTick(task -> {
+            EntityManager entityManager = plugin.getEntityManager();
+            if (entityManager != null) {
+                entityManager.clearEntitiesAsync("MEMORY");
+            }
+        });
+    }
+
+    /**
+     * Usage of one heap pool, in bytes
+     * @param name Pool name as reported by the JVM
+     * @param used Currently used
+     * @param committed Currently committed
+     * @param max Maximum, -1 if undefined
+     * @param usedAfterGc Used right after the latest collection of this pool, -1 if unknown
+     */
+    public record PoolUsage(@NotNull String name, long used, long committed, long max, long usedAfterGc) {
+    }
+}
@@ -19,6 +19,7 @@ public class MiscEntitySweepService {
 
     private final ClearLaggEnhanced plugin;
     private final PlatformScheduler scheduler;
+    private final ModuleProfiler profiler;
     private final Map<EntityType, Integer> caps;
     private final Set<String> worldFilter;
     private final boolean protectNamed;
@@ -35,6 +36,7 @@ public class MiscEntitySweepService {
     public MiscEntitySweepService(@NotNull ClearLaggEnhanced plugin, @NotNull ConfigManager cfg) {
         this.plugin = plugin;
         this.scheduler = ClearLaggEnhanced.scheduler();
+        this.profiler = plugin.getModuleProfiler();
 
         this.caps = loadCaps(cfg);
         this.worldFilter = new HashSet<>(cfg.getStringList("lag-prevention.misc-entity-limiter.worlds"));
@@ -100,6 +102,15 @@ public class MiscEntitySweepService {
     }
 
     private void tick() {
+        long started = profiler.begin();
+        try {
+            scheduleChunks();
+        } finally {
+            profiler.stop(ModuleProfiler.Module.MISC_ENTITY_SWEEP, started);
+        }
+    }
+
+    private void scheduleChunks() {
         List<World> worlds = plugin.getServer().getWorlds();
         List<Chunk> chunks = new ArrayList<>();
         for (World w : worlds) {
@@ -118,7 +129,14 @@ public class MiscEntitySweepService {
         for (int processed = 0; processed < maxChunksPerTick; processed++) {
             int i = Math.floorMod(cursor.getAndIncrement(), size);
             Chunk chunk = chunks.get(i);
-            scheduler.runAtLocation(chunk.getBlock(0, 0, 0).getLocation(), task -> enforceChunk(chunk));
+            scheduler.runAtLocation(chunk.getBlock(0, 0, 0).getLocation(), task -> {
+                long chunkStarted = profiler.begin();
+                try {
+                    enforceChunk(chunk);
+                } finally {
+                    profiler.stop(ModuleProfiler.Module.MISC_ENTITY_SWEEP, chunkStarted);
+                }
+            });
         }
     }
 
@@ -0,0 +1,145 @@
+package com.clearlagenhanced.managers;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.tcoded.folialib.impl.PlatformScheduler;
+import com.tcoded.folialib.wrapper.task.WrappedTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional self-instrumentation: time spent in each of the plugin's hot paths, as nanoTime deltas
+ * summed into striped counters, so /lagg profile can show what the protection itself costs per tick.
+ * Disabled by default; while disabled {@link #begin()} returns 0 and {@link #stop} returns at once.
+ */
+public class ModuleProfiler {
+
+    private static final Module[] MODULES = Module.values();
+
+    private final PlatformScheduler scheduler;
+    private final boolean enabled;
+    private final LongAdder[] nanos = new LongAdder[MODULES.length];
+    private final LongAdder[] calls = new LongAdder[MODULES.length];
+    private final LongAdder ticks = new LongAdder();
+    private WrappedTask tickTask;
+
+    public ModuleProfiler(@NotNull ClearLaggEnhanced plugin) {
+        this.scheduler = ClearLaggEnhanced.scheduler();
+        this.enabled = plugin.getConfigManager().getBoolean("performance.profiler.enabled", false);
+        for (int i = 0; i < MODULES.length; i++) {
+            nanos[i] = new LongAdder();
+            calls[i] = new LongAdder();
+        }
+    }
+
+    public void start() {
+        if (!enabled || tickTask != null) {
+            return;
+        }
+
+        tickTask = scheduler.runTimer(ticks::increment, 1L, 1L);
+    }
+
+    public void shutdown() {
+        if (tickTask != null) {
+            scheduler.cancelTask(tickTask);
+            tickTask = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start timing a call
+     * @return Start time to hand to {@link #stop}, or 0 while profiling is disabled
+     */
+    public long begin() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Stop timing a call started with {@link #begin()}
+     * @param module Module the call belongs to
+     * @param started Value returned by {@link #begin()}
+     */
+    public void stop(@NotNull Module module, long started) {
+        if (started != 0L) {
+            record(module, System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Add time measured by the caller
+     * @param module Module the call belongs to
+     * @param elapsedNanos Time spent
+     */
+    public void record(@NotNull Module module, long elapsedNanos) {
+        if (!enabled) {
+            return;
+        }
+
+        nanos[module.ordinal()].add(elapsedNanos);
+        calls[module.ordinal()].increment();
+    }
+
+    /**
+     * Totals since the last reset
+     * @param module Module to read
+     * @return Time, invocations and ticks elapsed
+     */
+    @NotNull
+    public Sample sample(@NotNull Module module) {
+        return new Sample(module, nanos[module.ordinal()].sum(), calls[module.ordinal()].sum(), ticks.sum());
+    }
+
+    public void reset() {
+        for (int i = 0; i < MODULES.length; i++) {
+            nanos[i].reset();
+            calls[i].reset();
+        }
+
+        ticks.reset();
+    }
+
+    /**
+     * Instrumented hot paths
+     */
+    public enum Module {
+        MOB_LIMITER("Mob limiter"),
+        REDSTONE_LIMITER("Redstone limiter"),
+        HOPPER_LIMITER("Hopper limiter"),
+        MISC_ENTITY_SWEEP("Misc entity sweep"),
+        ENTITY_CLEAR("Entity clearing");
+
+        private final String displayName;
+
+        Module(@NotNull String displayName) {
+            this.displayName = displayName;
+        }
+
+        @NotNull
+        public String displayName() {
+            return displayName;
+        }
+    }
+
+    /**
+     * Profile of one module since the last reset
+     * @param module Module
+     * @param nanos Total time spent
+     * @param calls Invocations
+     * @param ticks Server ticks elapsed
+     */
+    public record Sample(@NotNull Module module, long nanos, long calls, long ticks) {
+
+        public double nanosPerTick() {
+            return ticks == 0 ? 0.0 : (double) nanos / ticks;
+        }
+
+        public double nanosPerCall() {
+            return calls == 0 ? 0.0 : (double) nanos / calls;
+        }
+    }
+}
@@ -105,20 +105,24 @@ public class NotificationManager {
     }
 
     private void performClear() {
-        scheduler.runAsync(task -> {
-            long startTime = System.currentTimeMillis();
-            int cleared = plugin.getEntityManager().clearEntities();
-            long duration = System.currentTimeMillis() - startTime;
-
+        plugin.getEntityManager().clearEntitiesAsync("AUTO").thenAccept(report -> {
             Map<String, String> placeholders = new HashMap<>();
-            placeholders.put("count", String.valueOf(cleared));
-            placeholders.put("time", String.valueOf(duration));
+            placeholders.put("count", String.valueOf(report.cleared()));
+            placeholders.put("time", String.valueOf(report.durationMs()));
 
             Component message = messageManager.getMessage("notifications.clear-complete", placeholders);
 
             for (Player player : Bukkit.getOnlinePlayers()) {
                 player.sendMessage(message);
             }
+        }).exceptionally(ex -> {
+            // Players were warned about this clear, so tell them it did not happen
+            Component message = messageManager.getMessage("notifications.clear-failed");
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                player.sendMessage(message);
+            }
+
+            return null;
         });
     }
 
@@ -1,28 +1,50 @@
 package com.clearlagenhanced.managers;
 
 import com.clearlagenhanced.ClearLaggEnhanced;
-import com.clearlagenhanced.utils.MessageUtils;
-import com.tcoded.folialib.impl.PlatformScheduler;
+import com.clearlagenhanced.utils.TickHistogram;
 import org.bukkit.Bukkit;
-import org.bukkit.Chunk;
-import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.entity.Entity;
-import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-
 public class PerformanceManager {
 
-    private final ConfigManager configManager;
-    private final PlatformScheduler scheduler;
+    private final ClearLaggEnhanced plugin;
+    private final TickHistogram tickTimes = new TickHistogram(TickWindow.SECONDS_5.seconds, TickWindow.MINUTE_1.seconds,
+            TickWindow.MINUTES_5.seconds);
+    private final double laggingMspt;
 
     public PerformanceManager(@NotNull ClearLaggEnhanced plugin) {
-        this.configManager = plugin.getConfigManager();
-        this.scheduler = ClearLaggEnhanced.scheduler();
+        this.plugin = plugin;
+        this.laggingMspt = Math.max(1.0, plugin.getConfigManager().getDouble("performance.lagging-p95-mspt", 50.0));
+    }
+
+    /**
+     * Record the duration of one server tick. Called from the tick thread.
+     * @param millis Tick duration in milliseconds
+     */
+    public void recordTick(double millis) {
+        tickTimes.record(millis);
+    }
+
+    /**
+     * Tick duration percentiles of a window. On servers without tick events (Folia) no samples
+     * are recorded and callers should fall back to {@link #getMSPT()}.
+     * @param window Window to read
+     * @return Percentiles in milliseconds
+     */
+    @NotNull
+    public TickHistogram.Stats getTickStats(@NotNull TickWindow window) {
+        return tickTimes.stats(window.ordinal());
+    }
+
+    /**
+     * 95th percentile tick duration of a window, or the average when no ticks were recorded
+     * @param window Window to read
+     * @return MSPT
+     */
+    public double getP95MSPT(@NotNull TickWindow window) {
+        TickHistogram.Stats stats = getTickStats(window);
+        return stats.samples() > 0 ? stats.p95() : getMSPT();
     }
 
     public double getTPS() {
@@ -33,6 +55,18 @@ public class PerformanceManager {
         }
     }
 
+    /**
+     * Average tick duration over the last 100 ticks
+     * @return MSPT, or 0 if the server does not expose it
+     */
+    public double getMSPT() {
+        try {
+            return Bukkit.getServer().getAverageTickTime();
+        } catch (Exception e) {
+            return 0.0;
+        }
+    }
+
     public long getUsedMemory() {
         Runtime runtime = Runtime.getRuntime();
         return runtime.totalMemory() - runtime.freeMemory();
@@ -57,139 +91,51 @@ public class PerformanceManager {
     }
 
     public int getTotalEntities() {
+        return plugin.getEntityCensus().getTotalEntities();
+    }
+
+    public int getLoadedChunkCount() {
         int total = 0;
         for (World world : Bukkit.getWorlds()) {
-            total += world.getEntities().size();
+            total += world.getChunkCount();
         }
 
         return total;
     }
 
+    /**
+     * @return true when the 95th percentile tick over the last minute exceeds performance.lagging-p95-mspt
+     */
     public boolean isServerLagging() {
-        return getTPS() < 18.0;
+        return getP95MSPT(TickWindow.MINUTE_1) >= laggingMspt;
     }
 
+    /**
+     * @return true when the post-GC live set exceeds performance.memory.high-percent
+     */
     public boolean isMemoryHigh() {
-        return getMemoryUsagePercentage() > 85.0;
+        return plugin.getMemoryMonitor().isMemoryHigh();
     }
 
-    public void findLaggyChunksAsync(@NotNull Player player) {
-        MessageUtils.sendMessage(player, "chunkfinder.scanning");
-
-        World world = player.getWorld();
-        int radius = configManager.getInt("chunk-finder.radius", 10);
-        int entityThreshold = configManager.getInt("chunk-finder.entity-threshold", 50);
+    /**
+     * Windows of the tick duration histogram
+     */
+    public enum TickWindow {
+        SECONDS_5(5, "5s"),
+        MINUTE_1(60, "1m"),
+        MINUTES_5(300, "5m");
 
-        Chunk playerChunk = player.getLocation().getChunk();
-        int playerX = playerChunk.getX();
-        int playerZ = playerChunk.getZ();
+        private final int seconds;
+        private final String label;
 
-        List<ChunkInfo> laggyChunks = Collections.synchronizedList(new ArrayList<>());
-        List<int[]> targets = new ArrayList<>();
-
-        for (int x = playerX - radius; x <= playerX + radius; x++) {
-            for (int z = playerZ - radius; z <= playerZ + radius; z++) {
-                if (world.isChunkLoaded(x, z)) {
-                    targets.add(new int[]{x, z});
-                }
-            }
-        }
-
-        if (targets.isEmpty()) {
-            Map<String, String> ph = new ConcurrentHashMap<>();
-            ph.put("radius", String.valueOf(radius));
-            MessageUtils.sendMessage(player, "chunkfinder.none-found", ph);
-            return;
+        TickWindow(int seconds, @NotNull String label) {
+            this.seconds = seconds;
+            this.label = label;
         }
 
-        AtomicInteger pending = new AtomicInteger(targets.size());
-
-        for (int[] coord : targets) {
-            int cx = coord[0];
-            int cz = coord[1];
-
-            Location location = new Location(world, (cx << 4), 0, (cz << 4));
-
-            scheduler.runAtLocation(location, task -> {
-                if (!world.isChunkLoaded(cx, cz)) {
-                    if (pending.decrementAndGet() == 0) {
-                        scheduler.runNextTick(nextTask -> {
-                            if (laggyChunks.isEmpty()) {
-                                Map<String, String> ph = new ConcurrentHashMap<>();
-                                ph.put("radius", String.valueOf(radius));
-                                MessageUtils.sendMessage(player, "chunkfinder.none-found", ph);
-                            } else {
-                                MessageUtils.sendMessage(player, "chunkfinder.header");
-
-                                laggyChunks.sort((a, b) -> Integer.compare(b.entityCount, a.entityCount));
-
-                                int maxResults = Math.min(laggyChunks.size(), 10);
-                                for (int i = 0; i < maxResults; i++) {
-                                    ChunkInfo chunkInfo = laggyChunks.get(i);
-
-                                    Map<String, String> ph = new ConcurrentHashMap<>();
-                                    ph.put("x", String.valueOf(chunkInfo.x));
-                                    ph.put("z", String.valueOf(chunkInfo.z));
-                                    ph.put("count", String.valueOf(chunkInfo.entityCount));
-                                    ph.put("distance", String.valueOf(chunkInfo.distance));
-                                    MessageUtils.sendMessage(player, "chunkfinder.entry", ph);
-                                }
-
-                                if (laggyChunks.size() > 10) {
-                                    Map<String, String> phMore = new ConcurrentHashMap<>();
-                                    phMore.put("more", String.valueOf(laggyChunks.size() - 10));
-                                    MessageUtils.sendMessage(player, "chunkfinder.more", phMore);
-                                }
-                            }
-                        });
-                    }
-
-                    return;
-                }
-
-                Chunk chunk = world.getChunkAt(cx, cz);
-                Entity[] entities = chunk.getEntities();
-
-                if (entities.length >= entityThreshold) {
-                    int distance = Math.max(Math.abs(cx - playerX), Math.abs(cz - playerZ));
-                    laggyChunks.add(new ChunkInfo(cx, cz, entities.length, distance));
-                }
-
-                if (pending.decrementAndGet() == 0) {
-                    scheduler.runNextTick(task1 -> {
-                        if (laggyChunks.isEmpty()) {
-                            Map<String, String> ph = new ConcurrentHashMap<>();
-                            ph.put("radius", String.valueOf(radius));
-                            MessageUtils.sendMessage(player, "chunkfinder.none-found", ph);
-                        } else {
-                            MessageUtils.sendMessage(player, "chunkfinder.header");
-
-                            laggyChunks.sort((a, b) -> Integer.compare(b.entityCount, a.entityCount));
-
-                            int maxResults = Math.min(laggyChunks.size(), 10);
-                            for (int i = 0; i < maxResults; i++) {
-                                ChunkInfo chunkInfo = laggyChunks.get(i);
-
-                                Map<String, String> ph = new ConcurrentHashMap<>();
-                                ph.put("x", String.valueOf(chunkInfo.x));
-                                ph.put("z", String.valueOf(chunkInfo.z));
-                                ph.put("count", String.valueOf(chunkInfo.entityCount));
-                                ph.put("distance", String.valueOf(chunkInfo.distance));
-                                MessageUtils.sendMessage(player, "chunkfinder.entry", ph);
-                            }
-
-                            if (laggyChunks.size() > 10) {
-                                Map<String, String> phMore = new ConcurrentHashMap<>();
-                                phMore.put("more", String.valueOf(laggyChunks.size() - 10));
-                                MessageUtils.sendMessage(player, "chunkfinder.more", phMore);
-                            }
-                        }
-                    });
-                }
-            });
+        @NotNull
+        public String label() {
+            return label;
         }
     }
-
-    private record ChunkInfo(int x, int z, int entityCount, int distance) {
-    }
 }
@@ -0,0 +1,143 @@
+package com.clearlagenhanced.managers;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.database.DatabaseManager;
+import com.tcoded.folialib.impl.PlatformScheduler;
+import com.tcoded.folialib.wrapper.task.WrappedTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Samples server performance every performance.update-interval ticks into a fixed-size
+ * ring buffer of primitive arrays, and periodically hands the unflushed samples to the
+ * database in one batch. Older history is downsampled to one row per minute.
+ */
+public class PerformanceSampler {
+
+    private static final long MINUTE_MS = 60_000L;
+    private static final long DOWNSAMPLE_INTERVAL_MS = 60L * MINUTE_MS;
+
+    private final ClearLaggEnhanced plugin;
+    private final PerformanceManager performanceManager;
+    private final PlatformScheduler scheduler;
+    private final List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private final long intervalTicks;
+    private final int flushEvery;
+    private final long rawRetentionMs;
+    private final long retentionMs;
+
+    private final int capacity;
+    private final long[] epochMs;
+    private final float[] tps;
+    private final float[] mspt;
+    private final long[] heapUsed;
+    private final long[] heapMax;
+    private final long[] gcCount;
+    private final long[] gcTimeMs;
+    private final int[] entities;
+    private final int[] chunks;
+
+    // Sequence numbers; slot = sequence % capacity. Only touched from the sampling task.
+    private long written;
+    private long flushed;
+    private long lastDownsampleMs;
+
+    private WrappedTask sampleTask;
+
+    public PerformanceSampler(@NotNull ClearLaggEnhanced plugin) {
+        ConfigManager config = plugin.getConfigManager();
+        this.plugin = plugin;
+        this.performanceManager = plugin.getPerformanceManager();
+        this.scheduler = ClearLaggEnhanced.scheduler();
+
+        this.intervalTicks = Math.max(1, config.getInt("performance.update-interval", 20));
+        this.capacity = Math.max(60, config.getInt("performance.sampler.buffer-size", 3600));
+        this.flushEvery = Math.max(1, Math.min(capacity, config.getInt("performance.sampler.flush-every", 60)));
+        this.rawRetentionMs = Math.max(1, config.getInt("performance.sampler.raw-retention-hours", 24)) * 60L * MINUTE_MS;
+        this.retentionMs = Math.max(1, config.getInt("performance.sampler.retention-days", 30)) * 24L * 60L * MINUTE_MS;
+
+        this.epochMs = new long[capacity];
+        this.tps = new float[capacity];
+        this.mspt = new float[capacity];
+        this.heapUsed = new long[capacity];
+        this.heapMax = new long[capacity];
+        this.gcCount = new long[capacity];
+        this.gcTimeMs = new long[capacity];
+        this.entities = new int[capacity];
+        this.chunks = new int[capacity];
+    }
+
+    public void start() {
+        if (sampleTask != null) {
+            return;
+        }
+
+        sampleTask = scheduler.runTimer(this::sample, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Stop sampling and queue whatever has not been flushed yet
+     */
+    public void shutdown() {
+        if (sampleTask != null) {
+            scheduler.cancelTask(sampleTask);
+            sampleTask = null;
+        }
+
+        flush();
+    }
+
+    private void sample() {
+        long totalGcCount = 0L;
+        long totalGcTime = 0L;
+        for (GarbageCollectorMXBean bean : gcBeans) {
+            totalGcCount += Math.max(0L, bean.getCollectionCount());
+            totalGcTime += Math.max(0L, bean.getCollectionTime());
+        }
+
+        int slot = (int) (written % capacity);
+        epochMs[slot] = System.currentTimeMillis();
+        tps[slot] = (float) performanceManager.getTPS();
+        mspt[slot] = (float) performanceManager.getMSPT();
+        heapUsed[slot] = performanceManager.getUsedMemory();
+        heapMax[slot] = performanceManager.getMaxMemory();
+        gcCount[slot] = totalGcCount;
+        gcTimeMs[slot] = totalGcTime;
+        entities[slot] = performanceManager.getTotalEntities();
+        chunks[slot] = performanceManager.getLoadedChunkCount();
+        written++;
+
+        if (written - flushed >= flushEvery) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        DatabaseManager databaseManager = plugin.getDatabaseManager();
+        if (databaseManager == null) {
+            flushed = written;
+            return;
+        }
+
+        // Samples overwritten before they could be flushed are dropped
+        long from = Math.max(flushed, written - capacity);
+        for (long seq = from; seq < written; seq++) {
+            int slot = (int) (seq % capacity);
+            databaseManager.logPerformanceSample(epochMs[slot], tps[slot], mspt[slot], heapUsed[slot], heapMax[slot],
+                    entities[slot], chunks[slot], gcCount[slot], gcTimeMs[slot]);
+        }
+
+        flushed = written;
+
+        long now = System.currentTimeMillis();
+        if (now - lastDownsampleMs >= DOWNSAMPLE_INTERVAL_MS) {
+            lastDownsampleMs = now;
+            long rawCutoff = ((now - rawRetentionMs) / MINUTE_MS) * MINUTE_MS;
+            databaseManager.downsamplePerformanceData(rawCutoff, now - retentionMs);
+        }
+    }
+}
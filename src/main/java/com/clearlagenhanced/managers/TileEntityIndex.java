@@ -0,0 +1,395 @@
+package com.clearlagenhanced.managers;
+
+import com.clearlagenhanced.ClearLaggEnhanced;
+import com.clearlagenhanced.utils.ChunkKeys;
+import com.clearlagenhanced.utils.RegionShardMap;
+import com.tcoded.folialib.impl.PlatformScheduler;
+import com.tcoded.folialib.wrapper.task.WrappedTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.TileState;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Positions of selected tile entity types (hoppers, spawners, ...) per chunk, kept up to date
+ * from block change events and indexed on every chunk load, so limiters never scan chunks for
+ * them. The index is memory-only: it survives /lagg reload but is rebuilt from the loaded chunks
+ * on startup. Changes no event reports (plugins or WorldEdit setting blocks directly) are picked
+ * up by a slow periodic re-index of every loaded chunk. Pistons cannot move tile entities.
+ */
+public class TileEntityIndex {
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final ClearLaggEnhanced plugin;
+    private final PlatformScheduler scheduler;
+    private final int regionShift;
+    private final long verifyIntervalTicks;
+    // Index of each tracked material in ChunkTiles, or -1 if the material is not tracked
+    private final int[] slotByMaterial = new int[MATERIALS.length];
+    private final int trackedCount;
+    private final Map<UUID, RegionShardMap<ChunkTiles>> worlds = new ConcurrentHashMap<>();
+
+    private WrappedTask verifyTask;
+
+    public TileEntityIndex(@NotNull ClearLaggEnhanced plugin) {
+        ConfigManager config = plugin.getConfigManager();
+        this.plugin = plugin;
+        this.scheduler = ClearLaggEnhanced.scheduler();
+        this.regionShift = Math.max(0, Math.min(10, config.getInt("threading.region-chunk-shift", 4)));
+        this.verifyIntervalTicks = Math.max(30, config.getInt("performance.tile-index.verify-interval-seconds", 300)) * 20L;
+
+        Arrays.fill(slotByMaterial, -1);
+        List<String> types = new ArrayList<>(config.getStringList("performance.tile-index.types"));
+        // The hopper limiter relies on hopper positions
+        types.add(Material.HOPPER.name());
+        int slots = 0;
+        for (String type : types) {
+            Material material = Material.matchMaterial(type);
+            if (material == null || !material.isBlock()) {
+                plugin.getLogger().warning("Invalid block type in performance.tile-index.types: " + type);
+                continue;
+            }
+
+            // Chunk loads only see tile entities, so other blocks would be dropped on every re-index
+            if (!(material.createBlockData().createBlockState() instanceof TileState)) {
+                plugin.getLogger().warning("Block type in performance.tile-index.types is not a tile entity: " + type);
+                continue;
+            }
+
+            if (slotByMaterial[material.ordinal()] < 0) {
+                slotByMaterial[material.ordinal()] = slots++;
+            }
+        }
+
+        this.trackedCount = slots;
+    }
+
+    /**
+     * Index every chunk that is already loaded, then start the periodic re-index
+     */
+    public void start() {
+        if (verifyTask != null) {
+            return;
+        }
+
+        indexLoadedChunks();
+        verifyTask = scheduler.runTimer(this::indexLoadedChunks, verifyIntervalTicks, verifyIntervalTicks);
+    }
+
+    /**
+     * Re-index every loaded chunk, one task per region section
+     */
+    private void indexLoadedChunks() {
+        for (World world : Bukkit.getWorlds()) {
+            Map<Long, List<Chunk>> byRegion = new HashMap<>();
+            for (Chunk chunk : world.getLoadedChunks()) {
+                byRegion.computeIfAbsent(ChunkKeys.region(chunk.getX(), chunk.getZ(), regionShift), k -> new ArrayList<>()).add(chunk);
+            }
+
+            for (List<Chunk> chunks : byRegion.values()) {
+                Chunk first = chunks.get(0);
+                scheduler.runAtLocation(new Location(world, first.getX() << 4, 0, first.getZ() << 4), task -> {
+                    for (Chunk chunk : chunks) {
+                        if (chunk.isLoaded()) {
+                            chunkLoaded(chunk);
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    public void shutdown() {
+        if (verifyTask != null) {
+            scheduler.cancelTask(verifyTask);
+            verifyTask = null;
+        }
+
+        worlds.clear();
+    }
+
+    public boolean isTracked(@NotNull Material material) {
+        return slotByMaterial[material.ordinal()] >= 0;
+    }
+
+    /**
+     * (Re)index a chunk from its tile entities, without taking block state snapshots.
+     * Must be called from the thread owning the chunk.
+     * @param chunk Loaded chunk
+     */
+    public void chunkLoaded(@NotNull Chunk chunk) {
+        ChunkTiles tiles = new ChunkTiles(trackedCount);
+        for (BlockState state : chunk.getTileEntities(block -> isTracked(block.getType()), false)) {
+            tiles.add(slotByMaterial[state.getType().ordinal()], ChunkKeys.block(state.getX(), state.getY(), state.getZ()));
+        }
+
+        RegionShardMap<ChunkTiles> chunks = world(chunk.getWorld());
+        if (tiles.isEmpty()) {
+            chunks.remove(chunk.getX(), chunk.getZ());
+        } else {
+            chunks.computeIfAbsent(chunk.getX(), chunk.getZ(), () -> tiles).copyFrom(tiles);
+        }
+    }
+
+    public void chunkUnloaded(@NotNull World world, int chunkX, int chunkZ) {
+        RegionShardMap<ChunkTiles> chunks = worlds.get(world.getUID());
+        if (chunks != null) {
+            chunks.remove(chunkX, chunkZ);
+        }
+    }
+
+    public void worldUnloaded(@NotNull World world) {
+        worlds.remove(world.getUID());
+    }
+
+    /**
+     * Record a tracked block that was placed. Must be called from the thread owning the block.
+     * @param block Placed block, already of its new type
+     */
+    public void blockPlaced(@NotNull Block block) {
+        int slot = slotByMaterial[block.getType().ordinal()];
+        if (slot < 0) {
+            return;
+        }
+
+        world(block.getWorld()).computeIfAbsent(block.getX() >> 4, block.getZ() >> 4, () -> new ChunkTiles(trackedCount))
+                .add(slot, ChunkKeys.block(block.getX(), block.getY(), block.getZ()));
+    }
+
+    /**
+     * Forget a tracked block that is being broken or blown up. Must be called from the thread owning the block.
+     * @param block Removed block, still of its old type
+     */
+    public void blockRemoved(@NotNull Block block) {
+        int slot = slotByMaterial[block.getType().ordinal()];
+        if (slot < 0) {
+            return;
+        }
+
+        RegionShardMap<ChunkTiles> chunks = worlds.get(block.getWorld().getUID());
+        ChunkTiles tiles = chunks == null ? null : chunks.get(block.getX() >> 4, block.getZ() >> 4);
+        if (tiles != null) {
+            tiles.remove(slot, ChunkKeys.block(block.getX(), block.getY(), block.getZ()));
+        }
+    }
+
+    /**
+     * Track a block that changed type without being placed or broken (endermen, withers, fading
+     * blocks). Must be called from the thread owning the block.
+     * @param block Changed block, still of its old type
+     * @param to New type of the block
+     */
+    public void blockChanged(@NotNull Block block, @NotNull Material to) {
+        if (block.getType() == to) {
+            return;
+        }
+
+        blockRemoved(block);
+        int slot = slotByMaterial[to.ordinal()];
+        if (slot >= 0) {
+            world(block.getWorld()).computeIfAbsent(block.getX() >> 4, block.getZ() >> 4, () -> new ChunkTiles(trackedCount))
+                    .add(slot, ChunkKeys.block(block.getX(), block.getY(), block.getZ()));
+        }
+    }
+
+    /**
+     * Drop an indexed position that a reader found to no longer hold the tracked type.
+     * Must be called from the thread owning the block.
+     * @param world World of the block
+     * @param blockKey Packed block key (see {@link ChunkKeys#block})
+     * @param material Type the position was indexed as
+     */
+    public void forget(@NotNull World world, long blockKey, @NotNull Material material) {
+        int slot = slotByMaterial[material.ordinal()];
+        RegionShardMap<ChunkTiles> chunks = worlds.get(world.getUID());
+        if (slot < 0 || chunks == null) {
+            return;
+        }
+
+        ChunkTiles tiles = chunks.get(ChunkKeys.blockX(blockKey) >> 4, ChunkKeys.blockZ(blockKey) >> 4);
+        if (tiles != null) {
+            tiles.remove(slot, blockKey);
+        }
+    }
+
+    /**
+     * Number of indexed blocks of a type in a chunk
+     * @param world World of the chunk
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @param material Tracked block type; untracked types always return 0
+     * @return Count, or 0 if the chunk is not loaded
+     */
+    public int count(@NotNull World world, int chunkX, int chunkZ, @NotNull Material material) {
+        int slot = slotByMaterial[material.ordinal()];
+        RegionShardMap<ChunkTiles> chunks = worlds.get(world.getUID());
+        if (slot < 0 || chunks == null) {
+            return 0;
+        }
+
+        ChunkTiles tiles = chunks.get(chunkX, chunkZ);
+        return tiles == null ? 0 : tiles.sizes[slot];
+    }
+
+    /**
+     * Number of indexed blocks of all tracked types in a chunk
+     * @param world World of the chunk
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @return Count, or 0 if the chunk is not loaded
+     */
+    public int countAll(@NotNull World world, int chunkX, int chunkZ) {
+        RegionShardMap<ChunkTiles> chunks = worlds.get(world.getUID());
+        ChunkTiles tiles = chunks == null ? null : chunks.get(chunkX, chunkZ);
+        if (tiles == null) {
+            return 0;
+        }
+
+        int total = 0;
+        for (int size : tiles.sizes) {
+            total += size;
+        }
+
+        return total;
+    }
+
+    /**
+     * Visit the packed block keys (see {@link ChunkKeys#block}) of every indexed block of a type in a chunk
+     * @param world World of the chunk
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @param material Tracked block type
+     * @param visitor Receives each packed block key
+     */
+    public void forEach(@NotNull World world, int chunkX, int chunkZ, @NotNull Material material, @NotNull LongConsumer visitor) {
+        int slot = slotByMaterial[material.ordinal()];
+        RegionShardMap<ChunkTiles> chunks = worlds.get(world.getUID());
+        if (slot < 0 || chunks == null) {
+            return;
+        }
+
+        ChunkTiles tiles = chunks.get(chunkX, chunkZ);
+        if (tiles == null) {
+            return;
+        }
+
+        long[] positions = tiles.positions[slot];
+        int size = Math.min(tiles.sizes[slot], positions.length);
+        for (int i = 0; i < size; i++) {
+            visitor.accept(positions[i]);
+        }
+    }
+
+    /**
+     * Chunks of a world holding at least one indexed block of a type
+     * @param world World to look in
+     * @param material Tracked block type
+     * @return Packed chunk keys (see {@link ChunkKeys#pack})
+     */
+    public long[] chunksWith(@NotNull World world, @NotNull Material material) {
+        int slot = slotByMaterial[material.ordinal()];
+        RegionShardMap<ChunkTiles> chunks = worlds.get(world.getUID());
+        if (slot < 0 || chunks == null) {
+            return new long[0];
+        }
+
+        long[][] found = {new long[16]};
+        int[] size = {0};
+        chunks.forEach((chunkX, chunkZ, tiles) -> {
+            if (tiles.sizes[slot] > 0) {
+                if (size[0] == found[0].length) {
+                    found[0] = Arrays.copyOf(found[0], size[0] * 2);
+                }
+
+                found[0][size[0]++] = ChunkKeys.pack(chunkX, chunkZ);
+            }
+        });
+
+        return Arrays.copyOf(found[0], size[0]);
+    }
+
+    private RegionShardMap<ChunkTiles> world(@NotNull World world) {
+        return worlds.computeIfAbsent(world.getUID(), uid -> new RegionShardMap<>());
+    }
+
+    /**
+     * Tracked positions of one chunk, one unordered list per tracked type. Written only from
+     * the thread owning the chunk; other threads may read stale values.
+     */
+    private static final class ChunkTiles {
+        private final long[][] positions;
+        private final int[] sizes;
+
+        private ChunkTiles(int types) {
+            this.positions = new long[types][INITIAL_CAPACITY];
+            this.sizes = new int[types];
+        }
+
+        private void add(int slot, long key) {
+            long[] list = positions[slot];
+            int size = sizes[slot];
+            for (int i = 0; i < size; i++) {
+                if (list[i] == key) {
+                    return;
+                }
+            }
+
+            if (size == list.length) {
+                list = Arrays.copyOf(list, size * 2);
+                positions[slot] = list;
+            }
+
+            list[size] = key;
+            sizes[slot] = size + 1;
+        }
+
+        private void remove(int slot, long key) {
+            long[] list = positions[slot];
+            int size = sizes[slot];
+            for (int i = 0; i < size; i++) {
+                if (list[i] == key) {
+                    list[i] = list[size - 1];
+                    sizes[slot] = size - 1;
+                    return;
+                }
+            }
+        }
+
+        private void copyFrom(@NotNull ChunkTiles other) {
+            if (other == this) {
+                return;
+            }
+
+            for (int i = 0; i < sizes.length; i++) {
+                positions[i] = other.positions[i];
+                sizes[i] = other.sizes[i];
+            }
+        }
+
+        private boolean isEmpty() {
+            for (int size : sizes) {
+                if (size > 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
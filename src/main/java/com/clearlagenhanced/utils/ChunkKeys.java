@@ -0,0 +1,57 @@
+package com.clearlagenhanced.utils;
+
+/**
+ * Packs block, chunk and region coordinates into a single long so they can be used as
+ * map keys without allocating a key object per lookup.
+ */
+public final class ChunkKeys {
+
+    private ChunkKeys() {
+    }
+
+    public static long pack(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    public static int unpackX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int unpackZ(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Key of a block position (26 bits X, 26 bits Z, 12 bits Y), unique within a world
+     * @param x Block X coordinate
+     * @param y Block Y coordinate
+     * @param z Block Z coordinate
+     * @return Packed block key
+     */
+    public static long block(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFFL);
+    }
+
+    public static int blockX(long key) {
+        return (int) (key >> 38);
+    }
+
+    public static int blockY(long key) {
+        return (int) (key << 52 >> 52);
+    }
+
+    public static int blockZ(long key) {
+        return (int) (key << 26 >> 38);
+    }
+
+    /**
+     * Key of the region section that owns the given chunk
+     * @param chunkX Chunk X coordinate
+     * @param chunkZ Chunk Z coordinate
+     * @param regionShift Region section size as a power of two (in chunks)
+     * @return Packed region section key
+     */
+    public static long region(int chunkX, int chunkZ, int regionShift) {
+        return pack(chunkX >> regionShift, chunkZ >> regionShift);
+    }
+}
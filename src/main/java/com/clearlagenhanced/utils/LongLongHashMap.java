@@ -0,0 +1,256 @@
+package com.clearlagenhanced.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressed hash map from primitive long keys to long values. Lookups, updates and
+ * removals never allocate; the backing arrays only grow. Not thread-safe.
+ */
+public final class LongLongHashMap {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    // Key 0 marks a free slot, so its value is stored separately
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    public LongLongHashMap() {
+        this(16);
+    }
+
+    public LongLongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(4, expectedSize) / LOAD_FACTOR);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    public int size() {
+        return size + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0L) {
+            return hasZeroKey;
+        }
+
+        return findSlot(key) >= 0;
+    }
+
+    /**
+     * @param key Key to look up
+     * @return Mapped value, or 0 if the key is absent
+     */
+    public long get(long key) {
+        return getOrDefault(key, 0L);
+    }
+
+    /**
+     * @param key Key to look up
+     * @param defaultValue Value returned when the key is absent
+     * @return Mapped value, or the default if the key is absent
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == 0L) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+
+        int slot = findSlot(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    /**
+     * @param key Key to map
+     * @param value New value
+     * @return Previous value, or 0 if the key was absent
+     */
+    public long put(long key, long value) {
+        if (key == 0L) {
+            long previous = hasZeroKey ? zeroValue : 0;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+
+        int slot = mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != 0L) {
+            if (current == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+
+        return 0L;
+    }
+
+    /**
+     * @param key Key to remove
+     * @return Removed value, or 0 if the key was absent
+     */
+    public long remove(long key) {
+        if (key == 0L) {
+            long previous = hasZeroKey ? zeroValue : 0L;
+            hasZeroKey = false;
+            zeroValue = 0L;
+            return previous;
+        }
+
+        int slot = findSlot(key);
+        if (slot < 0) {
+            return 0L;
+        }
+
+        long previous = values[slot];
+        size--;
+        shiftKeys(slot);
+        return previous;
+    }
+
+    /**
+     * Number of slots to scan. Together with {@link #isFree(int)}, {@link #keyAt(int)},
+     * {@link #valueAt(int)} and {@link #removeAt(int)} this allows incremental scans with a cursor.
+     * The last slot holds the zero key (chunk 0,0 packs to it), so a full scan visits every mapping.
+     * @return Slot count
+     */
+    public int slots() {
+        return keys.length + 1;
+    }
+
+    public boolean isFree(int slot) {
+        return slot == keys.length ? !hasZeroKey : keys[slot] == 0L;
+    }
+
+    public long keyAt(int slot) {
+        return slot == keys.length ? 0L : keys[slot];
+    }
+
+    public long valueAt(int slot) {
+        return slot == keys.length ? zeroValue : values[slot];
+    }
+
+    /**
+     * Remove the mapping stored in a slot. A later entry may be shifted into the same slot,
+     * so a scan should look at the slot again instead of advancing.
+     * @param slot Occupied slot
+     */
+    public void removeAt(int slot) {
+        if (slot == keys.length) {
+            hasZeroKey = false;
+            zeroValue = 0L;
+            return;
+        }
+
+        size--;
+        shiftKeys(slot);
+    }
+
+    /**
+     * Remove every mapping but keep the allocated capacity, so a table that is refilled to the
+     * same size afterwards does not rehash
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, 0L);
+            Arrays.fill(values, 0L);
+            size = 0;
+        }
+
+        hasZeroKey = false;
+        zeroValue = 0L;
+    }
+
+    private int findSlot(long key) {
+        int slot = mix(key) & mask;
+        long current;
+        while ((current = keys[slot]) != 0L) {
+            if (current == key) {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void shiftKeys(int slot) {
+        int last;
+        long current;
+        while (true) {
+            last = slot;
+            slot = (slot + 1) & mask;
+            while (true) {
+                if ((current = keys[slot]) == 0L) {
+                    keys[last] = 0L;
+                    values[last] = 0L;
+                    return;
+                }
+
+                int home = mix(current) & mask;
+                if (last <= slot ? last >= home || home > slot : last >= home && home > slot) {
+                    break;
+                }
+
+                slot = (slot + 1) & mask;
+            }
+
+            keys[last] = current;
+            values[last] = values[slot];
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == 0L) {
+                continue;
+            }
+
+            int slot = mix(key) & mask;
+            while (keys[slot] != 0L) {
+                slot = (slot + 1) & mask;
+            }
+
+            keys[slot] = key;
+            values[slot] = oldValues[i];
+        }
+    }
+}
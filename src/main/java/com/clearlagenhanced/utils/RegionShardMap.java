@@ -0,0 +1,115 @@
+package com.clearlagenhanced.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Per-chunk values of one world, stored in fixed 16x16 chunk shards. Lookups of an existing
+ * chunk are lock-free and touch one map entry per shard instead of one per chunk; shards are
+ * created and dropped under the shard's map bin lock, which only happens on chunk load/unload.
+ * @param <T> Value type
+ */
+public final class RegionShardMap<T> {
+
+    public static final int SHARD_SHIFT = 4;
+    private static final int SHARD_MASK = (1 << SHARD_SHIFT) - 1;
+    private static final int SHARD_SIZE = 1 << (SHARD_SHIFT * 2);
+
+    private final ConcurrentHashMap<Long, Shard<T>> shards = new ConcurrentHashMap<>();
+
+    private static int slot(int chunkX, int chunkZ) {
+        return ((chunkX & SHARD_MASK) << SHARD_SHIFT) | (chunkZ & SHARD_MASK);
+    }
+
+    @Nullable
+    public T get(int chunkX, int chunkZ) {
+        Shard<T> shard = shards.get(ChunkKeys.region(chunkX, chunkZ, SHARD_SHIFT));
+        return shard == null ? null : shard.values.get(slot(chunkX, chunkZ));
+    }
+
+    @NotNull
+    public T computeIfAbsent(int chunkX, int chunkZ, @NotNull Supplier<T> factory) {
+        T value = get(chunkX, chunkZ);
+        if (value != null) {
+            return value;
+        }
+
+        final int slot = slot(chunkX, chunkZ);
+        final Object[] created = new Object[1];
+        shards.compute(ChunkKeys.region(chunkX, chunkZ, SHARD_SHIFT), (key, shard) -> {
+            if (shard == null) {
+                shard = new Shard<>();
+            }
+
+            T existing = shard.values.get(slot);
+            if (existing == null) {
+                existing = factory.get();
+                shard.values.set(slot, existing);
+                shard.size.incrementAndGet();
+            }
+
+            created[0] = existing;
+            return shard;
+        });
+
+        @SuppressWarnings("unchecked")
+        T result = (T) created[0];
+        return result;
+    }
+
+    @Nullable
+    public T remove(int chunkX, int chunkZ) {
+        final int slot = slot(chunkX, chunkZ);
+        final Object[] removed = new Object[1];
+        shards.computeIfPresent(ChunkKeys.region(chunkX, chunkZ, SHARD_SHIFT), (key, shard) -> {
+            T previous = shard.values.getAndSet(slot, null);
+            if (previous == null) {
+                return shard;
+            }
+
+            removed[0] = previous;
+            return shard.size.decrementAndGet() == 0 ? null : shard;
+        });
+
+        @SuppressWarnings("unchecked")
+        T result = (T) removed[0];
+        return result;
+    }
+
+    /**
+     * Visit every stored value. Weakly consistent, like iteration over a ConcurrentHashMap.
+     * @param visitor Receives chunk X, chunk Z and the value
+     */
+    public void forEach(@NotNull ChunkVisitor<T> visitor) {
+        for (var entry : shards.entrySet()) {
+            int baseX = ChunkKeys.unpackX(entry.getKey()) << SHARD_SHIFT;
+            int baseZ = ChunkKeys.unpackZ(entry.getKey()) << SHARD_SHIFT;
+            AtomicReferenceArray<T> values = entry.getValue().values;
+            for (int i = 0; i < SHARD_SIZE; i++) {
+                T value = values.get(i);
+                if (value != null) {
+                    visitor.visit(baseX + (i >> SHARD_SHIFT), baseZ + (i & SHARD_MASK), value);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        shards.clear();
+    }
+
+    @FunctionalInterface
+    public interface ChunkVisitor<T> {
+        void visit(int chunkX, int chunkZ, @NotNull T value);
+    }
+
+    private static final class Shard<T> {
+        private final AtomicReferenceArray<T> values = new AtomicReferenceArray<>(SHARD_SIZE);
+        private final AtomicInteger size = new AtomicInteger();
+    }
+}
@@ -0,0 +1,184 @@
+package com.clearlagenhanced.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Log-bucketed histogram of durations (tick times, GC pauses) over sliding time windows. Durations are kept in
+ * microseconds, 16 linear sub-buckets per power of two (about 3% error), in one slice per
+ * second; each window keeps running bucket sums so a percentile is a single pass over the
+ * buckets. Recording never allocates. All methods are synchronized; recording is uncontended
+ * in practice since only the tick thread writes.
+ */
+public final class TickHistogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 25;
+    private static final long MAX_MICROS = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 1) * SUB_COUNT;
+    private static final long NANOS_PER_SLICE = 1_000_000_000L;
+
+    private final int[] windowSeconds;
+    private final int sliceCount;
+    private final int[][] sliceCounts;
+    private final long[] sliceMax;
+    private final int[][] windowCounts;
+    private final int[] windowTotals;
+
+    private long currentSecond;
+    private int currentSlice;
+
+    /**
+     * @param windowSeconds Window lengths in seconds, queried by their index
+     */
+    public TickHistogram(int... windowSeconds) {
+        this.windowSeconds = windowSeconds.clone();
+        int longest = 1;
+        for (int seconds : windowSeconds) {
+            if (seconds < 1) {
+                throw new IllegalArgumentException("Window must be at least one second: " + seconds);
+            }
+
+            longest = Math.max(longest, seconds);
+        }
+
+        this.sliceCount = longest;
+        this.sliceCounts = new int[sliceCount][BUCKETS];
+        this.sliceMax = new long[sliceCount];
+        this.windowCounts = new int[windowSeconds.length][BUCKETS];
+        this.windowTotals = new int[windowSeconds.length];
+        this.currentSecond = System.nanoTime() / NANOS_PER_SLICE;
+    }
+
+    /**
+     * Record one tick
+     * @param millis Tick duration in milliseconds
+     */
+    public synchronized void record(double millis) {
+        advance(System.nanoTime() / NANOS_PER_SLICE);
+        long micros = Math.max(0L, Math.min(MAX_MICROS, Math.round(millis * 1000.0)));
+        int bucket = bucketOf(micros);
+        sliceCounts[currentSlice][bucket]++;
+        sliceMax[currentSlice] = Math.max(sliceMax[currentSlice], micros);
+        for (int w = 0; w < windowCounts.length; w++) {
+            windowCounts[w][bucket]++;
+            windowTotals[w]++;
+        }
+    }
+
+    /**
+     * Percentiles of one window
+     * @param window Index of the window as passed to the constructor
+     * @return Stats in milliseconds; zero samples if nothing was recorded in the window
+     */
+    @NotNull
+    public synchronized Stats stats(int window) {
+        advance(System.nanoTime() / NANOS_PER_SLICE);
+        int total = windowTotals[window];
+        if (total == 0) {
+            return new Stats(0, 0.0, 0.0, 0.0, 0.0);
+        }
+
+        long max = 0L;
+        for (int i = 0; i < windowSeconds[window]; i++) {
+            max = Math.max(max, sliceMax[Math.floorMod(currentSlice - i, sliceCount)]);
+        }
+
+        int[] counts = windowCounts[window];
+        return new Stats(total, percentile(counts, total, 0.50), percentile(counts, total, 0.95),
+                percentile(counts, total, 0.99), max / 1000.0);
+    }
+
+    public synchronized void clear() {
+        for (int[] counts : sliceCounts) {
+            Arrays.fill(counts, 0);
+        }
+
+        for (int[] counts : windowCounts) {
+            Arrays.fill(counts, 0);
+        }
+
+        Arrays.fill(sliceMax, 0L);
+        Arrays.fill(windowTotals, 0);
+    }
+
+    private void advance(long second) {
+        long elapsed = second - currentSecond;
+        if (elapsed <= 0) {
+            return;
+        }
+
+        currentSecond = second;
+        if (elapsed >= sliceCount) {
+            clear();
+            currentSlice = (int) Math.floorMod(second, (long) sliceCount);
+            return;
+        }
+
+        for (long i = 0; i < elapsed; i++) {
+            currentSlice = (currentSlice + 1) % sliceCount;
+            // Drop the slice that falls out of each window, then reuse the oldest slice
+            for (int w = 0; w < windowCounts.length; w++) {
+                int[] leaving = sliceCounts[Math.floorMod(currentSlice - windowSeconds[w], sliceCount)];
+                int[] counts = windowCounts[w];
+                for (int b = 0; b < BUCKETS; b++) {
+                    if (leaving[b] != 0) {
+                        counts[b] -= leaving[b];
+                        windowTotals[w] -= leaving[b];
+                    }
+                }
+            }
+
+            Arrays.fill(sliceCounts[currentSlice], 0);
+            sliceMax[currentSlice] = 0L;
+        }
+    }
+
+    private static double percentile(int[] counts, int total, double fraction) {
+        long target = Math.max(1L, (long) Math.ceil(total * fraction));
+        long seen = 0L;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b];
+            if (seen >= target) {
+                return valueOf(b) / 1000.0;
+            }
+        }
+
+        return valueOf(BUCKETS - 1) / 1000.0;
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros < SUB_COUNT) {
+            return (int) micros;
+        }
+
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BITS;
+        return (shift + 1) * SUB_COUNT + (int) ((micros >>> shift) - SUB_COUNT);
+    }
+
+    /**
+     * @return Midpoint of a bucket in microseconds
+     */
+    private static double valueOf(int bucket) {
+        if (bucket < 2 * SUB_COUNT) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_COUNT - 1;
+        long lower = (long) (bucket % SUB_COUNT + SUB_COUNT) << shift;
+        return lower + ((1L << shift) - 1) / 2.0;
+    }
+
+    /**
+     * Tick durations of one window, in milliseconds
+     * @param samples Ticks recorded in the window
+     * @param p50 Median
+     * @param p95 95th percentile
+     * @param p99 99th percentile
+     * @param max Longest tick
+     */
+    public record Stats(int samples, double p50, double p95, double p99, double max) {
+    }
+}